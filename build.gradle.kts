@@ -22,6 +22,7 @@ plugins {
     alias(libs.plugins.qodana)
     alias(libs.plugins.kover)
     alias(libs.plugins.grammarkit)
+    alias(libs.plugins.jmh)
 }
 
 grammarKit {
@@ -83,6 +84,12 @@ sourceSets {
     test {
         systemProperty("user.language", "ja")
     }
+
+    // Benchmarks set up a light IDE fixture, so they need the same platform classpath as the tests
+    named("jmh") {
+        compileClasspath += sourceSets["test"].compileClasspath
+        runtimeClasspath += sourceSets["test"].runtimeClasspath
+    }
 }
 
 dependencies {
@@ -175,6 +182,19 @@ changelog {
     repositoryUrl = providers.gradleProperty("pluginRepositoryUrl")
 }
 
+// Configure JMH benchmarks - run with `./gradlew jmh [-PjmhIncludes=<regex>] [-PjmhProfilers=gc]`
+jmh {
+    jmhVersion = libs.versions.jmh
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(listOf(".*"))
+    profilers = providers.gradleProperty("jmhProfilers").map { it.split(",") }.orElse(emptyList())
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    jvmArgsAppend.addAll(provider { tasks.test.get().allJvmArgs })
+}
+
 // Configure Gradle Kover Plugin - read more: https://github.com/Kotlin/kotlinx-kover#configuration
 kover {
     reports {
@@ -215,6 +235,67 @@ tasks {
     }
 }
 
+// Scores are only comparable on the same hardware, so src/jmh/baseline.json is recorded only by
+// the Benchmark workflow (.github/workflows/benchmark.yml, run with update-baseline) on the runner
+// that also runs jmhCheckBaseline; never refresh it from a local run.
+tasks.register<Copy>("jmhUpdateBaseline") {
+    group = "benchmark"
+    description = "Replace the JMH baseline with the latest benchmark results"
+    from(layout.buildDirectory.file("reports/jmh/results.json"))
+    into(layout.projectDirectory.dir("src/jmh"))
+    rename { "baseline.json" }
+}
+
+tasks.register<Task>("jmhCheckBaseline") {
+    group = "benchmark"
+    description = "Fail when a benchmark is slower than the JMH baseline by more than jmhRegressionThreshold percent"
+    mustRunAfter("jmh")
+
+    val resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+    val baselineFile = layout.projectDirectory.file("src/jmh/baseline.json")
+    val threshold =
+        providers
+            .gradleProperty("jmhRegressionThreshold")
+            .map { it.toDouble() }
+            .orElse(20.0)
+
+    doLast {
+        val mapper = jacksonObjectMapper()
+
+        // Every benchmark runs in AverageTime mode, so a higher score is slower
+        fun readScores(file: File): Map<String, Double> {
+            if (!file.exists()) throw GradleException("Not Found JMH result: ${file.path}")
+            return (mapper.readValue(file, List::class.java) as List<*>).associate { item ->
+                val result = item as Map<*, *>
+                val params =
+                    (result["params"] as? Map<*, *>)
+                        ?.entries
+                        ?.joinToString(",") { "${it.key}=${it.value}" }
+                        .orEmpty()
+                val metric = result["primaryMetric"] as Map<*, *>
+                "${result["benchmark"]}($params)" to (metric["score"] as Number).toDouble()
+            }
+        }
+
+        if (!baselineFile.asFile.exists()) {
+            throw GradleException(
+                "Not Found JMH baseline: ${baselineFile.asFile.path}. Record it with the Benchmark workflow (update-baseline)",
+            )
+        }
+        val baseline = readScores(baselineFile.asFile)
+        val regressions =
+            readScores(resultsFile.get().asFile).mapNotNull { (name, score) ->
+                val baseScore = baseline[name] ?: return@mapNotNull null
+                val changeRate = (score - baseScore) / baseScore * 100
+                logger.lifecycle("$name: baseline=$baseScore current=$score (${"%+.1f".format(changeRate)}%)")
+                if (changeRate > threshold.get()) name else null
+            }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Benchmark regressions over ${threshold.get()}%: ${regressions.joinToString()}")
+        }
+    }
+}
+
 tasks.register<Task>("encodeBase64") {
     doLast {
         val currentDir = File("./certificate")
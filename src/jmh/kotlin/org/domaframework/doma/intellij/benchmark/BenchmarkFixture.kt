@@ -0,0 +1,58 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiFile
+import com.intellij.testFramework.fixtures.CodeInsightTestFixture
+import com.intellij.testFramework.fixtures.IdeaTestFixtureFactory
+import com.intellij.testFramework.fixtures.LightJavaCodeInsightFixtureTestCase
+import com.intellij.testFramework.runInEdtAndGet
+import com.intellij.testFramework.runInEdtAndWait
+
+/**
+ * Light IDE project shared by the benchmarks of one trial
+ */
+class BenchmarkFixture {
+    private lateinit var fixture: CodeInsightTestFixture
+
+    val project: Project
+        get() = fixture.project
+
+    fun setUp() {
+        runInEdtAndWait {
+            val projectFixture =
+                IdeaTestFixtureFactory
+                    .getFixtureFactory()
+                    .createLightFixtureBuilder(LightJavaCodeInsightFixtureTestCase.JAVA_LATEST, "DomaBenchmark")
+                    .fixture
+            fixture = IdeaTestFixtureFactory.getFixtureFactory().createCodeInsightFixture(projectFixture)
+            fixture.setUp()
+        }
+    }
+
+    fun tearDown() {
+        runInEdtAndWait { fixture.tearDown() }
+    }
+
+    fun addFile(
+        relativePath: String,
+        text: String,
+    ): PsiFile = runInEdtAndGet { fixture.addFileToProject(relativePath, text.trimIndent()) }
+
+    fun <T> read(action: () -> T): T = ReadAction.compute<T, Throwable> { action() }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import com.intellij.psi.JavaPsiFacade
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiElementFactory
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.PsiTreeUtil
+import org.domaframework.doma.intellij.common.psi.PsiParentClass
+import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
+import org.domaframework.doma.intellij.extension.expr.accessElements
+import org.domaframework.doma.intellij.psi.SqlElFieldAccessExpr
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Type resolution of every field access chain on the DAO parameter with
+ * [ForDirectiveUtil.getFieldAccessLastPropertyClassType]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class FieldAccessResolveBenchmark {
+    @Param("1000", "10000", "100000")
+    var lines: Int = 0
+
+    private val fixture = BenchmarkFixture()
+    private lateinit var topParent: PsiParentClass
+    private lateinit var accessBlocks: List<List<PsiElement>>
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        fixture.setUp()
+        fixture.addFile("bench/Employee.java", SqlCorpus.EMPLOYEE_CLASS)
+        fixture.addFile("bench/Department.java", SqlCorpus.DEPARTMENT_CLASS)
+        val sqlFile = fixture.addFile("bench/resolve.sql", SqlCorpus.generate(lines))
+
+        fixture.read {
+            val project = fixture.project
+            val employeeClass =
+                JavaPsiFacade
+                    .getInstance(project)
+                    .findClass("bench.Employee", GlobalSearchScope.allScope(project))
+                    ?: error("Not Found bench.Employee")
+            topParent = PsiParentClass(PsiElementFactory.getInstance(project).createType(employeeClass))
+            accessBlocks =
+                PsiTreeUtil
+                    .findChildrenOfType(sqlFile, SqlElFieldAccessExpr::class.java)
+                    .map { it.accessElements.filterNotNull() }
+                    .filter { it.firstOrNull()?.text == SqlCorpus.EMPLOYEE_PARAM }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        fixture.tearDown()
+    }
+
+    @Benchmark
+    fun resolveFieldAccess(blackhole: Blackhole) {
+        fixture.read {
+            accessBlocks.forEach { blocks ->
+                blackhole.consume(
+                    ForDirectiveUtil.getFieldAccessLastPropertyClassType(blocks, fixture.project, topParent),
+                )
+            }
+        }
+    }
+}
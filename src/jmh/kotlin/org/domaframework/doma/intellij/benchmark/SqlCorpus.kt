@@ -0,0 +1,84 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+/**
+ * Generates SQL templates of a given size for benchmarks.
+ * Each section nests %if inside %for, and binds field access chains on [EMPLOYEE_PARAM].
+ */
+object SqlCorpus {
+    const val EMPLOYEE_PARAM = "employee"
+
+    private val section =
+        listOf(
+            "SELECT e.employee_id",
+            "     , e.employee_name",
+            "     , COUNT(d.department_id) AS department_count",
+            "  FROM employee e",
+            " INNER JOIN department d",
+            "    ON e.department_id = d.department_id",
+            " WHERE e.employee_name = /* $EMPLOYEE_PARAM.department.manager.name */'name'",
+            "/*%for member : $EMPLOYEE_PARAM.department.members */",
+            "  /*%if member.department.name != null */",
+            "   AND d.department_name = /* member.department.name */'department'",
+            "    /*%for sub : member.department.members */",
+            "   OR e.employee_id = /* sub.manager.department.manager.name */0",
+            "    /*%end*/",
+            "  /*%end*/",
+            "  /*%if member_has_next */",
+            "   OR",
+            "  /*%end*/",
+            "/*%end*/",
+            " GROUP BY e.employee_id, e.employee_name",
+            "HAVING COUNT(d.department_id) > /* $EMPLOYEE_PARAM.department.members.size() */0",
+            "UNION ALL",
+        )
+
+    /**
+     * Generate whole sections until at least [lines] lines are written, so every directive stays closed
+     */
+    fun generate(lines: Int): String =
+        buildString {
+            repeat((lines + section.size - 1) / section.size) {
+                section.forEach { append(it).append('\n') }
+            }
+            append("SELECT 1")
+        }
+
+    const val EMPLOYEE_CLASS =
+        """
+        package bench;
+
+        public class Employee {
+            public String name;
+            public Department department;
+            public Employee manager;
+        }
+        """
+
+    const val DEPARTMENT_CLASS =
+        """
+        package bench;
+
+        import java.util.List;
+
+        public class Department {
+            public String name;
+            public Employee manager;
+            public List<Employee> members;
+        }
+        """
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import com.intellij.formatting.Block
+import com.intellij.formatting.Spacing
+import com.intellij.psi.formatter.common.AbstractBlock
+import com.intellij.psi.impl.source.tree.LeafPsiElement
+import com.intellij.psi.tree.IElementType
+import org.domaframework.doma.intellij.formatter.builder.SqlCustomSpacingBuilder
+import org.domaframework.doma.intellij.psi.SqlTypes
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OperationsPerInvocation
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Rule lookup of [SqlCustomSpacingBuilder.getCustomSpacing] for adjacent blocks.
+ *
+ * Run with `-PjmhProfilers=gc`; `gc.alloc.rate.norm` is expected to stay at zero bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+open class SqlCustomSpacingBenchmark {
+    private val blockTypes =
+        arrayOf<IElementType>(
+            SqlTypes.KEYWORD,
+            SqlTypes.WORD,
+            SqlTypes.OTHER,
+            SqlTypes.COMMA,
+            SqlTypes.LEFT_PAREN,
+            SqlTypes.RIGHT_PAREN,
+            SqlTypes.FUNCTION_NAME,
+            SqlTypes.NUMBER,
+            SqlTypes.STRING,
+            SqlTypes.BLOCK_COMMENT,
+        )
+
+    private lateinit var spacingBuilder: SqlCustomSpacingBuilder
+    private lateinit var leftBlocks: Array<Block>
+    private lateinit var rightBlocks: Array<Block>
+
+    @Setup
+    fun setUp() {
+        spacingBuilder =
+            SqlCustomSpacingBuilder()
+                .withSpacing(SqlTypes.FUNCTION_NAME, SqlTypes.LEFT_PAREN, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.FUNCTION_NAME, SqlTypes.OTHER, SqlCustomSpacingBuilder.normalSpacing)
+                .withSpacing(SqlTypes.NUMBER, SqlTypes.COMMA, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.STRING, SqlTypes.COMMA, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.WORD, SqlTypes.LEFT_PAREN, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.LEFT_PAREN, SqlTypes.WORD, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.WORD, SqlTypes.RIGHT_PAREN, SqlCustomSpacingBuilder.nonSpacing)
+                .withSpacing(SqlTypes.WORD, SqlTypes.WORD, SqlCustomSpacingBuilder.normalSpacing)
+                .withSpacing(SqlTypes.OTHER, SqlTypes.OTHER, SqlCustomSpacingBuilder.normalSpacing)
+                .withSpacing(SqlTypes.OTHER, SqlTypes.WORD, SqlCustomSpacingBuilder.normalSpacing)
+
+        // Every combination of block types, so both hits and misses are measured
+        val pairCount = blockTypes.size * blockTypes.size
+        check(pairCount == PAIR_COUNT)
+        leftBlocks = Array(pairCount) { TokenBlock(blockTypes[it / blockTypes.size]) }
+        rightBlocks = Array(pairCount) { TokenBlock(blockTypes[it % blockTypes.size]) }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIR_COUNT)
+    fun getCustomSpacing(blackhole: Blackhole) {
+        for (i in leftBlocks.indices) {
+            blackhole.consume(spacingBuilder.getCustomSpacing(leftBlocks[i], rightBlocks[i]))
+        }
+    }
+
+    private class TokenBlock(
+        type: IElementType,
+    ) : AbstractBlock(LeafPsiElement(type, "x"), null, null) {
+        override fun buildChildren(): List<Block> = emptyList()
+
+        override fun getSpacing(
+            child1: Block?,
+            child2: Block,
+        ): Spacing? = null
+
+        override fun isLeaf(): Boolean = true
+    }
+
+    companion object {
+        private const val PAIR_COUNT = 100
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import com.intellij.formatting.FormattingContext
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFile
+import com.intellij.psi.codeStyle.CodeStyle
+import com.intellij.testFramework.runInEdtAndGet
+import com.intellij.testFramework.runInEdtAndWait
+import org.domaframework.doma.intellij.formatter.block.SqlFileBlock
+import org.domaframework.doma.intellij.formatter.builder.SqlFormattingModelBuilder
+import org.domaframework.doma.intellij.formatter.processor.SqlFormatPreProcessor
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Block building and pre-format processing of a whole SQL file
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class SqlFormatterBenchmark {
+    @Param("1000", "10000", "100000")
+    var lines: Int = 0
+
+    private val fixture = BenchmarkFixture()
+    private lateinit var sql: String
+    private lateinit var sqlFile: PsiFile
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        fixture.setUp()
+        sql = SqlCorpus.generate(lines)
+        sqlFile = fixture.addFile("bench/format.sql", sql)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        fixture.tearDown()
+    }
+
+    /**
+     * [SqlFormatPreProcessor.updateDocument] rewrites the document, so restore it before every call
+     */
+    @Setup(Level.Invocation)
+    fun resetDocument() {
+        runInEdtAndWait {
+            WriteCommandAction.runWriteCommandAction(fixture.project) {
+                val documentManager = PsiDocumentManager.getInstance(fixture.project)
+                val document = documentManager.getDocument(sqlFile) ?: return@runWriteCommandAction
+                if (document.text != sql) {
+                    document.setText(sql)
+                    documentManager.commitDocument(document)
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    fun buildChildren(blackhole: Blackhole) {
+        fixture.read {
+            val context = FormattingContext.create(sqlFile, CodeStyle.getSettings(sqlFile))
+            val block = SqlFormattingModelBuilder().createModel(context).rootBlock as SqlFileBlock
+            blackhole.consume(block.buildChildren())
+        }
+    }
+
+    @Benchmark
+    fun updateDocument(): SqlFormatPreProcessor.ProcessResult =
+        runInEdtAndGet {
+            WriteCommandAction.runWriteCommandAction<SqlFormatPreProcessor.ProcessResult>(fixture.project) {
+                SqlFormatPreProcessor().updateDocument(sqlFile, sqlFile.textRange)
+            }
+        }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import org.domaframework.doma.intellij.setting.SqlLexerAdapter
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.infra.Blackhole
+import java.util.concurrent.TimeUnit
+
+/**
+ * Tokenization of a whole SQL file with [SqlLexerAdapter]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class SqlLexerBenchmark {
+    @Param("1000", "10000", "100000")
+    var lines: Int = 0
+
+    private lateinit var sql: String
+
+    @Setup
+    fun setUp() {
+        sql = SqlCorpus.generate(lines)
+    }
+
+    @Benchmark
+    fun tokenize(blackhole: Blackhole) {
+        val lexer = SqlLexerAdapter()
+        lexer.start(sql)
+        while (lexer.tokenType != null) {
+            blackhole.consume(lexer.tokenType)
+            lexer.advance()
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.benchmark
+
+import com.intellij.lang.ASTNode
+import com.intellij.lang.PsiBuilderFactory
+import org.domaframework.doma.intellij.SqlParser
+import org.domaframework.doma.intellij.setting.SqlLexerAdapter
+import org.domaframework.doma.intellij.setting.SqlParserDefinition
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import java.util.concurrent.TimeUnit
+
+/**
+ * Building the AST of a whole SQL file with [SqlParser]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+open class SqlParserBenchmark {
+    @Param("1000", "10000", "100000")
+    var lines: Int = 0
+
+    private val fixture = BenchmarkFixture()
+    private val parserDefinition = SqlParserDefinition()
+    private lateinit var sql: String
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        fixture.setUp()
+        sql = SqlCorpus.generate(lines)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        fixture.tearDown()
+    }
+
+    @Benchmark
+    fun parse(): ASTNode {
+        val builder = PsiBuilderFactory.getInstance().createBuilder(parserDefinition, SqlLexerAdapter(), sql)
+        return SqlParser().parse(SqlParserDefinition.FILE, builder)
+    }
+}
@@ -15,14 +15,18 @@
  */
 package org.domaframework.doma.intellij;
 
+import com.intellij.psi.tree.IElementType;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import org.domaframework.doma.intellij.tokens.MySqlFunctionToken;
 import org.domaframework.doma.intellij.tokens.OracleFunctionToken;
 import org.domaframework.doma.intellij.tokens.PostgresSqlFunctionToken;
 import org.domaframework.doma.intellij.tokens.SqlDataTypeTokenUtil;
+import org.domaframework.doma.intellij.tokens.SqlDialect;
 import org.domaframework.doma.intellij.tokens.SqlFunctionToken;
 import org.domaframework.doma.intellij.tokens.SqlKeywordTokenUtil;
+import org.jetbrains.annotations.NotNull;
 
 public class SqlTokenHelper {
 
@@ -30,6 +34,8 @@ public class SqlTokenHelper {
   static final Set<String> DATA_TYPE_TOKENS = new HashSet<>();
   static final Set<String> FUNCTION_TOKENS = new HashSet<>();
 
+  private static final SqlTokenTable DEFAULT_TOKEN_TABLE;
+
   static {
     // Initialize keyword tokens
     KEYWORD_TOKENS.addAll(SqlKeywordTokenUtil.getTokens());
@@ -42,6 +48,8 @@ public class SqlTokenHelper {
     FUNCTION_TOKENS.addAll(PostgresSqlFunctionToken.getTokens());
     FUNCTION_TOKENS.addAll(MySqlFunctionToken.getTokens());
     FUNCTION_TOKENS.addAll(OracleFunctionToken.getTokens());
+
+    DEFAULT_TOKEN_TABLE = SqlTokenTable.create(KEYWORD_TOKENS, DATA_TYPE_TOKENS, FUNCTION_TOKENS);
   }
 
   // Keywords
@@ -58,4 +66,46 @@ public class SqlTokenHelper {
   public static Set<String> getFunctionTokens() {
     return FUNCTION_TOKENS;
   }
+
+  /**
+   * Word table of the default keywords, data types and the functions of every dialect.
+   *
+   * @return immutable word table
+   */
+  public static @NotNull SqlTokenTable getDefaultTokenTable() {
+    return DEFAULT_TOKEN_TABLE;
+  }
+
+  /**
+   * Create a word table that only contains the functions of the given dialect, plus user defined
+   * words.
+   *
+   * @param dialect SQL dialect
+   * @param customKeywords keywords registered by the user
+   * @param customFunctions function names registered by the user
+   * @return immutable word table
+   */
+  public static @NotNull SqlTokenTable createTokenTable(
+      @NotNull SqlDialect dialect,
+      @NotNull Collection<String> customKeywords,
+      @NotNull Collection<String> customFunctions) {
+    Set<String> keywords = new HashSet<>(KEYWORD_TOKENS);
+    keywords.addAll(customKeywords);
+    Set<String> functions = dialect.getFunctionTokens();
+    functions.addAll(customFunctions);
+    return SqlTokenTable.create(keywords, DATA_TYPE_TOKENS, functions);
+  }
+
+  /**
+   * Classify a word of the lexer buffer with the default word table.
+   *
+   * @param buffer lexer buffer
+   * @param start start offset of the word
+   * @param end end offset of the word
+   * @return token type of the word
+   */
+  public static @NotNull IElementType getWordTokenType(
+      @NotNull CharSequence buffer, int start, int end) {
+    return DEFAULT_TOKEN_TABLE.getWordTokenType(buffer, start, end);
+  }
 }
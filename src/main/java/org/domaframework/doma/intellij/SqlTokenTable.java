@@ -0,0 +1,145 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij;
+
+import com.intellij.psi.tree.IElementType;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import org.domaframework.doma.intellij.psi.SqlTypes;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable word table used by the lexer to classify SQL words.
+ *
+ * <p>The table is an open addressing hash table of lower case words kept at most a quarter full,
+ * so most lookups finish in one probe. Lookups read the lexer buffer directly and never allocate,
+ * and the table is never modified after creation, so lexers on any thread can share it without
+ * locking.
+ */
+public final class SqlTokenTable {
+
+  private final char[][] keys;
+  private final IElementType[] types;
+  private final int mask;
+  private final int maxWordLength;
+
+  private SqlTokenTable(
+      Collection<String> keywords, Collection<String> dataTypes, Collection<String> functions) {
+    int tokenCount = Math.max(keywords.size() + dataTypes.size() + functions.size(), 1);
+    int size = Integer.highestOneBit(tokenCount * 4 - 1) << 1;
+    keys = new char[size][];
+    types = new IElementType[size];
+    mask = size - 1;
+    // Registered in reverse priority order so that a later group overwrites an earlier one
+    int maxLength = putAll(functions, SqlTypes.FUNCTION_NAME);
+    maxLength = Math.max(maxLength, putAll(dataTypes, SqlTypes.DATATYPE));
+    maxLength = Math.max(maxLength, putAll(keywords, SqlTypes.KEYWORD));
+    maxWordLength = maxLength;
+  }
+
+  /**
+   * Create a table. When a word is contained in several groups, keywords take priority over data
+   * types, and data types over functions.
+   *
+   * @param keywords keyword tokens
+   * @param dataTypes data type tokens
+   * @param functions function name tokens
+   * @return immutable word table
+   */
+  public static @NotNull SqlTokenTable create(
+      @NotNull Collection<String> keywords,
+      @NotNull Collection<String> dataTypes,
+      @NotNull Collection<String> functions) {
+    return new SqlTokenTable(keywords, dataTypes, functions);
+  }
+
+  /**
+   * Classify a word of the lexer buffer without creating a String for it. The comparison is case
+   * insensitive.
+   *
+   * @param buffer lexer buffer
+   * @param start start offset of the word
+   * @param end end offset of the word
+   * @return {@link SqlTypes#KEYWORD}, {@link SqlTypes#DATATYPE}, {@link SqlTypes#FUNCTION_NAME} or
+   *     {@link SqlTypes#WORD}
+   */
+  public @NotNull IElementType getWordTokenType(@NotNull CharSequence buffer, int start, int end) {
+    int length = end - start;
+    if (length <= 0 || length > maxWordLength) return SqlTypes.WORD;
+
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      char c = buffer.charAt(i);
+      // Only ASCII words are registered
+      if (c >= 0x80) return SqlTypes.WORD;
+      hash = 31 * hash + toLowerAscii(c);
+    }
+
+    for (int index = mix(hash) & mask; ; index = (index + 1) & mask) {
+      char[] key = keys[index];
+      if (key == null) return SqlTypes.WORD;
+      if (matches(key, buffer, start, length)) return types[index];
+    }
+  }
+
+  private int putAll(Collection<String> tokens, IElementType type) {
+    int maxLength = 0;
+    for (String token : tokens) {
+      char[] key = token.trim().toLowerCase(Locale.ROOT).toCharArray();
+      if (key.length == 0 || !isAscii(key)) continue;
+      put(key, type);
+      maxLength = Math.max(maxLength, key.length);
+    }
+    return maxLength;
+  }
+
+  private void put(char[] key, IElementType type) {
+    int hash = 0;
+    for (char c : key) {
+      hash = 31 * hash + c;
+    }
+    int index = mix(hash) & mask;
+    while (keys[index] != null && !Arrays.equals(keys[index], key)) {
+      index = (index + 1) & mask;
+    }
+    keys[index] = key;
+    types[index] = type;
+  }
+
+  private static boolean matches(char[] key, CharSequence buffer, int start, int length) {
+    if (key.length != length) return false;
+    for (int i = 0; i < length; i++) {
+      if (key[i] != toLowerAscii(buffer.charAt(start + i))) return false;
+    }
+    return true;
+  }
+
+  private static boolean isAscii(char[] key) {
+    for (char c : key) {
+      if (c >= 0x80) return false;
+    }
+    return true;
+  }
+
+  private static char toLowerAscii(char c) {
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  private static int mix(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+}
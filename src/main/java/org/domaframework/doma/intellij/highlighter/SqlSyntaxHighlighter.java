@@ -21,12 +21,14 @@ import com.intellij.lexer.Lexer;
 import com.intellij.openapi.editor.DefaultLanguageHighlighterColors;
 import com.intellij.openapi.editor.colors.TextAttributesKey;
 import com.intellij.openapi.fileTypes.SyntaxHighlighterBase;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.tree.IElementType;
 import java.util.HashMap;
 import java.util.Map;
 import org.domaframework.doma.intellij.psi.SqlTypes;
 import org.domaframework.doma.intellij.setting.SqlLexerAdapter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class SqlSyntaxHighlighter extends SyntaxHighlighterBase {
 
@@ -198,10 +200,20 @@ public class SqlSyntaxHighlighter extends SyntaxHighlighterBase {
     map.put(SqlTypes.EL_NUMBER, EL_NUMBER);
   }
 
+  private final @Nullable Project project;
+
+  public SqlSyntaxHighlighter() {
+    this(null);
+  }
+
+  public SqlSyntaxHighlighter(@Nullable Project project) {
+    this.project = project;
+  }
+
   @NotNull
   @Override
   public Lexer getHighlightingLexer() {
-    return new SqlLexerAdapter();
+    return new SqlLexerAdapter(project);
   }
 
   @Override
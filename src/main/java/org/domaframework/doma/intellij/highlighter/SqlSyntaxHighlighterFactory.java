@@ -26,6 +26,6 @@ final class SqlSyntaxHighlighterFactory extends SyntaxHighlighterFactory {
   @Override
   public @NotNull SyntaxHighlighter getSyntaxHighlighter(
       @Nullable Project project, @Nullable VirtualFile virtualFile) {
-    return new SqlSyntaxHighlighter();
+    return new SqlSyntaxHighlighter(project);
   }
 }
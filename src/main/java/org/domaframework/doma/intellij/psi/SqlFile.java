@@ -18,6 +18,8 @@ package org.domaframework.doma.intellij.psi;
 import com.intellij.extapi.psi.PsiFileBase;
 import com.intellij.openapi.fileTypes.FileType;
 import com.intellij.psi.FileViewProvider;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubTree;
 import org.domaframework.doma.intellij.setting.SqlFileType;
 import org.domaframework.doma.intellij.setting.SqlLanguage;
 import org.jetbrains.annotations.NotNull;
@@ -32,6 +34,22 @@ public class SqlFile extends PsiFileBase {
     return SqlFileType.INSTANCE;
   }
 
+  /**
+   * Returns the directive summary of this file. The indexed stub is used while the AST is not
+   * loaded; otherwise the summary is built from the current tree.
+   */
+  public @NotNull SqlFileStub getDirectiveStub() {
+    StubTree stubTree = getStubTree();
+    if (stubTree != null && stubTree.getRoot() instanceof SqlFileStub indexedStub) {
+      return indexedStub;
+    }
+    StubElement<?> stub = getGreenStub();
+    if (stub instanceof SqlFileStub sqlFileStub) {
+      return sqlFileStub;
+    }
+    return (SqlFileStub) calcStubTree().getRoot();
+  }
+
   @Override
   public String toString() {
     return "SQL File";
@@ -0,0 +1,137 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.psi;
+
+import com.intellij.psi.StubBuilder;
+import com.intellij.psi.stubs.IndexSink;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.stubs.StubInputStream;
+import com.intellij.psi.stubs.StubOutputStream;
+import com.intellij.psi.tree.IStubFileElementType;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.domaframework.doma.intellij.index.SqlDirectiveStubIndex;
+import org.domaframework.doma.intellij.setting.SqlLanguage;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Stub file element type of Doma SQL templates.
+ *
+ * <p>Only a file level stub is built; it carries the directive summary described in {@link
+ * SqlFileStub} and feeds {@link SqlDirectiveStubIndex}.
+ */
+public class SqlFileElementType extends IStubFileElementType<SqlFileStub> {
+
+  /** Increment whenever the stub contents or the {@link SqlFileStubBuilder} logic change. */
+  private static final int STUB_VERSION = 2;
+
+  public SqlFileElementType() {
+    super("DOMA_SQL_FILE", SqlLanguage.INSTANCE);
+  }
+
+  @Override
+  public StubBuilder getBuilder() {
+    return new SqlFileStubBuilder();
+  }
+
+  @Override
+  public int getStubVersion() {
+    return STUB_VERSION;
+  }
+
+  @Override
+  public @NotNull String getExternalId() {
+    return "DomaSql.FILE";
+  }
+
+  @Override
+  public void serialize(@NotNull SqlFileStub stub, @NotNull StubOutputStream dataStream)
+      throws IOException {
+    writeNames(stub.getBindVariables(), dataStream);
+    writeNames(stub.getForItemVariables(), dataStream);
+    dataStream.writeVarInt(stub.getForDirectives().size());
+    for (SqlFileStub.ForDirective forDirective : stub.getForDirectives()) {
+      dataStream.writeName(forDirective.itemName());
+      dataStream.writeUTFFast(forDirective.declaration());
+    }
+    dataStream.writeVarInt(stub.getIfConditions().size());
+    for (String condition : stub.getIfConditions()) {
+      dataStream.writeUTFFast(condition);
+    }
+    writeNames(stub.getStaticClassNames(), dataStream);
+  }
+
+  @Override
+  public @NotNull SqlFileStub deserialize(
+      @NotNull StubInputStream dataStream, StubElement parentStub) throws IOException {
+    Set<String> bindVariables = readNames(dataStream);
+    Set<String> forItemVariables = readNames(dataStream);
+    int forDirectiveCount = dataStream.readVarInt();
+    List<SqlFileStub.ForDirective> forDirectives = new ArrayList<>(forDirectiveCount);
+    for (int i = 0; i < forDirectiveCount; i++) {
+      String itemName = dataStream.readNameString();
+      String declaration = dataStream.readUTFFast();
+      forDirectives.add(new SqlFileStub.ForDirective(itemName != null ? itemName : "", declaration));
+    }
+    int ifConditionCount = dataStream.readVarInt();
+    List<String> ifConditions = new ArrayList<>(ifConditionCount);
+    for (int i = 0; i < ifConditionCount; i++) {
+      ifConditions.add(dataStream.readUTFFast());
+    }
+    Set<String> staticClassNames = readNames(dataStream);
+    return new SqlFileStub(
+        null, bindVariables, forItemVariables, forDirectives, ifConditions, staticClassNames);
+  }
+
+  @Override
+  public void indexStub(@NotNull SqlFileStub stub, @NotNull IndexSink sink) {
+    for (String name : stub.getBindVariables()) {
+      sink.occurrence(SqlDirectiveStubIndex.KEY, SqlDirectiveStubIndex.bindVariableKey(name));
+    }
+    for (SqlFileStub.ForDirective forDirective : stub.getForDirectives()) {
+      sink.occurrence(
+          SqlDirectiveStubIndex.KEY, SqlDirectiveStubIndex.forItemKey(forDirective.itemName()));
+    }
+    for (String className : stub.getStaticClassNames()) {
+      sink.occurrence(SqlDirectiveStubIndex.KEY, SqlDirectiveStubIndex.staticClassKey(className));
+    }
+  }
+
+  private static void writeNames(
+      @NotNull Collection<String> names, @NotNull StubOutputStream dataStream) throws IOException {
+    dataStream.writeVarInt(names.size());
+    for (String name : names) {
+      dataStream.writeName(name);
+    }
+  }
+
+  private static @NotNull Set<String> readNames(@NotNull StubInputStream dataStream)
+      throws IOException {
+    int size = dataStream.readVarInt();
+    Set<String> names = new LinkedHashSet<>(size);
+    for (int i = 0; i < size; i++) {
+      String name = dataStream.readNameString();
+      if (name != null) {
+        names.add(name);
+      }
+    }
+    return names;
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.psi;
+
+import com.intellij.psi.stubs.PsiFileStubImpl;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * File stub of a Doma SQL template.
+ *
+ * <p>Holds the directive summary of the file so that cross-file features can answer which bind
+ * variables, for items and static classes a template uses without loading its AST.
+ *
+ * <ul>
+ *   <li>{@code bindVariables}: root identifiers of directives that are not declared by an enclosing
+ *       {@code %for}
+ *   <li>{@code forItemVariables}: root identifiers that refer to an enclosing {@code %for} item,
+ *       including the item declarations themselves
+ *   <li>{@code forDirectives}: {@code %for} item names and their declaration expressions
+ *   <li>{@code ifConditions}: condition expressions of {@code %if} and {@code %elseif}
+ *   <li>{@code staticClassNames}: class names referenced by {@code @Class@} static access
+ * </ul>
+ */
+public class SqlFileStub extends PsiFileStubImpl<SqlFile> {
+
+  /** Item name and declaration expression of a {@code %for} directive. */
+  public record ForDirective(@NotNull String itemName, @NotNull String declaration) {}
+
+  private final Set<String> bindVariables;
+  private final Set<String> forItemVariables;
+  private final List<ForDirective> forDirectives;
+  private final List<String> ifConditions;
+  private final Set<String> staticClassNames;
+
+  public SqlFileStub(
+      SqlFile file,
+      @NotNull Set<String> bindVariables,
+      @NotNull Set<String> forItemVariables,
+      @NotNull List<ForDirective> forDirectives,
+      @NotNull List<String> ifConditions,
+      @NotNull Set<String> staticClassNames) {
+    super(file);
+    this.bindVariables = Set.copyOf(bindVariables);
+    this.forItemVariables = Set.copyOf(forItemVariables);
+    this.forDirectives = List.copyOf(forDirectives);
+    this.ifConditions = List.copyOf(ifConditions);
+    this.staticClassNames = Set.copyOf(staticClassNames);
+  }
+
+  public @NotNull Set<String> getBindVariables() {
+    return bindVariables;
+  }
+
+  public @NotNull Set<String> getForItemVariables() {
+    return forItemVariables;
+  }
+
+  public @NotNull List<ForDirective> getForDirectives() {
+    return forDirectives;
+  }
+
+  public @NotNull List<String> getIfConditions() {
+    return ifConditions;
+  }
+
+  public @NotNull Set<String> getStaticClassNames() {
+    return staticClassNames;
+  }
+}
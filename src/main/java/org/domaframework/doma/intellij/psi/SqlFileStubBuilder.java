@@ -0,0 +1,165 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.psi;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor;
+import com.intellij.psi.stubs.DefaultStubBuilder;
+import com.intellij.psi.stubs.StubElement;
+import com.intellij.psi.tree.IElementType;
+import com.intellij.psi.util.PsiTreeUtil;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Builds the {@link SqlFileStub} of a Doma SQL template in a single walk over the PSI tree.
+ *
+ * <p>The {@code %for}/{@code %if}/{@code %end} nesting is tracked with a stack so that each root
+ * identifier can be classified as a for item reference or a free bind variable at build time.
+ */
+public class SqlFileStubBuilder extends DefaultStubBuilder {
+
+  private static final String HAS_NEXT_SUFFIX = "_has_next";
+  private static final String INDEX_SUFFIX = "_index";
+
+  @Override
+  protected @NotNull StubElement<?> createStubForFile(@NotNull PsiFile file) {
+    if (!(file instanceof SqlFile sqlFile)) {
+      return super.createStubForFile(file);
+    }
+    DirectiveCollector collector = new DirectiveCollector();
+    sqlFile.accept(collector);
+    return new SqlFileStub(
+        sqlFile,
+        collector.bindVariables,
+        collector.forItemVariables,
+        collector.forDirectives,
+        collector.ifConditions,
+        collector.staticClassNames);
+  }
+
+  /**
+   * Strip the {@code _has_next} / {@code _index} suffixes that Doma adds to for items.
+   *
+   * @param name identifier name
+   * @return for item name the identifier refers to
+   */
+  public static @NotNull String toForItemName(@NotNull String name) {
+    if (name.endsWith(HAS_NEXT_SUFFIX)) {
+      return name.substring(0, name.length() - HAS_NEXT_SUFFIX.length());
+    }
+    if (name.endsWith(INDEX_SUFFIX)) {
+      return name.substring(0, name.length() - INDEX_SUFFIX.length());
+    }
+    return name;
+  }
+
+  private record DirectiveFrame(@Nullable String forItemName, @Nullable SqlElForDirective owner) {}
+
+  private static class DirectiveCollector extends PsiRecursiveElementWalkingVisitor {
+    private final Deque<DirectiveFrame> directiveStack = new ArrayDeque<>();
+    private final Set<String> bindVariables = new LinkedHashSet<>();
+    private final Set<String> forItemVariables = new LinkedHashSet<>();
+    private final List<SqlFileStub.ForDirective> forDirectives = new ArrayList<>();
+    private final List<String> ifConditions = new ArrayList<>();
+    private final Set<String> staticClassNames = new LinkedHashSet<>();
+
+    @Override
+    public void visitElement(@NotNull PsiElement element) {
+      IElementType elementType = element.getNode().getElementType();
+      if (elementType == SqlTypes.EL_FOR) {
+        pushForDirective(element);
+      } else if (elementType == SqlTypes.EL_IF) {
+        directiveStack.push(new DirectiveFrame(null, null));
+        addCondition(element.getParent());
+      } else if (elementType == SqlTypes.EL_ELSEIF) {
+        addCondition(element.getParent());
+      } else if (elementType == SqlTypes.EL_END) {
+        directiveStack.poll();
+      } else if (element instanceof SqlElStaticFieldAccessExpr staticFieldAccessExpr) {
+        staticClassNames.add(staticFieldAccessExpr.getElClass().getText());
+      } else if (element instanceof SqlElIdExpr idExpr && isRootIdentifier(idExpr)) {
+        addRootIdentifier(idExpr);
+      }
+      super.visitElement(element);
+    }
+
+    private void pushForDirective(PsiElement forKeyword) {
+      SqlElForDirective forDirective =
+          forKeyword.getParent() instanceof SqlElForDirective directive ? directive : null;
+      SqlElPrimaryExpr forItem = getForItem(forDirective);
+      String itemName = forItem != null ? forItem.getText() : null;
+      directiveStack.push(new DirectiveFrame(itemName, forDirective));
+      if (itemName == null) return;
+
+      List<SqlElExpr> exprs = PsiTreeUtil.getChildrenOfTypeAsList(forDirective, SqlElExpr.class);
+      String declaration = exprs.size() > 1 ? exprs.get(exprs.size() - 1).getText() : "";
+      forDirectives.add(new SqlFileStub.ForDirective(itemName, declaration));
+    }
+
+    private void addCondition(@Nullable PsiElement directive) {
+      if (directive == null) return;
+      SqlElExpr condition = PsiTreeUtil.getChildOfType(directive, SqlElExpr.class);
+      if (condition != null) {
+        ifConditions.add(condition.getText());
+      }
+    }
+
+    /** Identifiers that follow "." or "@", or are part of a class name, are not bind variables. */
+    private static boolean isRootIdentifier(SqlElIdExpr idExpr) {
+      if (PsiTreeUtil.getParentOfType(idExpr, SqlElClass.class) != null) return false;
+      PsiElement prev = PsiTreeUtil.skipWhitespacesAndCommentsBackward(idExpr);
+      if (prev == null) return true;
+      IElementType prevType = prev.getNode().getElementType();
+      return prevType != SqlTypes.DOT && prevType != SqlTypes.AT_SIGN;
+    }
+
+    private void addRootIdentifier(SqlElIdExpr idExpr) {
+      String name = idExpr.getText();
+      SqlElForDirective owner = PsiTreeUtil.getParentOfType(idExpr, SqlElForDirective.class);
+      if (owner != null && getForItem(owner) == idExpr) {
+        forItemVariables.add(name);
+        return;
+      }
+
+      String forItemName = toForItemName(name);
+      boolean isForItem =
+          directiveStack.stream()
+              .anyMatch(
+                  frame ->
+                      frame.forItemName() != null
+                          && frame.owner() != owner
+                          && frame.forItemName().equals(forItemName));
+      if (isForItem) {
+        forItemVariables.add(name);
+      } else {
+        bindVariables.add(name);
+      }
+    }
+
+    private static @Nullable SqlElPrimaryExpr getForItem(@Nullable SqlElForDirective forDirective) {
+      if (forDirective == null) return null;
+      return PsiTreeUtil.getChildOfType(forDirective, SqlElPrimaryExpr.class);
+    }
+  }
+}
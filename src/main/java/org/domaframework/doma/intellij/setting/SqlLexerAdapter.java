@@ -16,10 +16,53 @@
 package org.domaframework.doma.intellij.setting;
 
 import com.intellij.lexer.FlexAdapter;
+import com.intellij.lexer.RestartableLexer;
+import com.intellij.lexer.TokenIterator;
+import com.intellij.openapi.project.Project;
 import org.domaframework.doma.intellij.SqlLexer;
+import org.domaframework.doma.intellij.setting.state.DomaToolsSqlDialectSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public class SqlLexerAdapter extends FlexAdapter {
+/**
+ * Lexer of Doma SQL templates.
+ *
+ * <p>The lexer keeps no state other than the JFlex lexical state, so lexing can be restarted at
+ * any token boundary. Editor highlighters use this to re-lex only the tokens around an edit instead
+ * of the whole enclosing directive comment.
+ */
+public class SqlLexerAdapter extends FlexAdapter implements RestartableLexer {
   public SqlLexerAdapter() {
-    super(new SqlLexer(null));
+    this(null);
+  }
+
+  public SqlLexerAdapter(@Nullable Project project) {
+    super(createLexer(project));
+  }
+
+  @Override
+  public int getStartState() {
+    return SqlLexer.YYINITIAL;
+  }
+
+  @Override
+  public boolean isRestartableState(int state) {
+    return true;
+  }
+
+  @Override
+  public void start(
+      @NotNull CharSequence buffer,
+      int startOffset,
+      int endOffset,
+      int initialState,
+      TokenIterator tokenIterator) {
+    start(buffer, startOffset, endOffset, initialState);
+  }
+
+  private static SqlLexer createLexer(@Nullable Project project) {
+    SqlLexer lexer = new SqlLexer(null);
+    lexer.setTokenTable(DomaToolsSqlDialectSettings.findTokenTable(project));
+    return lexer;
   }
 }
@@ -27,16 +27,17 @@ import com.intellij.psi.tree.IFileElementType;
 import com.intellij.psi.tree.TokenSet;
 import org.domaframework.doma.intellij.SqlParser;
 import org.domaframework.doma.intellij.psi.SqlFile;
+import org.domaframework.doma.intellij.psi.SqlFileElementType;
 import org.domaframework.doma.intellij.psi.SqlTokenSets;
 import org.domaframework.doma.intellij.psi.SqlTypes;
 import org.jetbrains.annotations.NotNull;
 
 public final class SqlParserDefinition implements ParserDefinition {
-  public static final IFileElementType FILE = new IFileElementType(SqlLanguage.INSTANCE);
+  public static final IFileElementType FILE = new SqlFileElementType();
 
   @Override
   public @NotNull Lexer createLexer(Project project) {
-    return new SqlLexerAdapter();
+    return new SqlLexerAdapter(project);
   }
 
   @Override
@@ -0,0 +1,54 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.tokens;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/** SQL dialect that decides which function names are highlighted as functions */
+public enum SqlDialect {
+  /** Functions of every supported dialect */
+  ALL,
+  STANDARD,
+  POSTGRESQL,
+  MYSQL,
+  ORACLE;
+
+  public Set<String> getFunctionTokens() {
+    Set<String> tokens = new HashSet<>(SqlFunctionToken.getTokens());
+    switch (this) {
+      case ALL -> {
+        tokens.addAll(PostgresSqlFunctionToken.getTokens());
+        tokens.addAll(MySqlFunctionToken.getTokens());
+        tokens.addAll(OracleFunctionToken.getTokens());
+      }
+      case POSTGRESQL -> tokens.addAll(PostgresSqlFunctionToken.getTokens());
+      case MYSQL -> tokens.addAll(MySqlFunctionToken.getTokens());
+      case ORACLE -> tokens.addAll(OracleFunctionToken.getTokens());
+      case STANDARD -> {}
+    }
+    return tokens;
+  }
+
+  public static SqlDialect fromName(String name) {
+    for (SqlDialect dialect : values()) {
+      if (dialect.name().equalsIgnoreCase(name)) {
+        return dialect;
+      }
+    }
+    return ALL;
+  }
+}
@@ -39,7 +39,7 @@ abstract class AbstractConvertSqlFileToAnnotationAction : PsiElementBaseIntentio
         }
 
         val daoMethod = getDaoMethod(element) ?: return false
-        return checkAvailable(project, daoMethod)
+        return checkAvailable(daoMethod)
     }
 
     /**
@@ -57,11 +57,8 @@ abstract class AbstractConvertSqlFileToAnnotationAction : PsiElementBaseIntentio
      */
     protected abstract fun getActionName(): String
 
-    private fun checkAvailable(
-        project: Project,
-        daoMethod: PsiMethod,
-    ): Boolean {
-        val psiDaoMethod = PsiDaoMethod(project, daoMethod)
+    private fun checkAvailable(daoMethod: PsiMethod): Boolean {
+        val psiDaoMethod = PsiDaoMethod.getInstance(daoMethod)
 
         // Check if method doesn't have @Sql annotation
         if (psiDaoMethod.sqlFile == null || psiDaoMethod.useSqlAnnotation()) {
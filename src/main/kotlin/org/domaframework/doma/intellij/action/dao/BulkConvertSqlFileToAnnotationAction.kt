@@ -46,7 +46,7 @@ class BulkConvertSqlFileToAnnotationAction : PsiElementBaseIntentionAction() {
         val daoClass = findDaoClassElement(element) ?: return false
         if (getDaoClass(daoClass.containingFile) == null) return false
 
-        val methods = getTargetMethods(daoClass, project)
+        val methods = getTargetMethods(daoClass)
 
         return methods.isNotEmpty()
     }
@@ -69,7 +69,7 @@ class BulkConvertSqlFileToAnnotationAction : PsiElementBaseIntentionAction() {
         // Already checked in isAvailable, should not be null here
         check(getDaoClass(daoClass.containingFile) != null) { "DAO class should be available" }
 
-        val methods = getTargetMethods(daoClass, project)
+        val methods = getTargetMethods(daoClass)
         if (methods.isEmpty()) return
 
         WriteCommandAction.runWriteCommandAction(project) {
@@ -87,13 +87,10 @@ class BulkConvertSqlFileToAnnotationAction : PsiElementBaseIntentionAction() {
         )
     }
 
-    private fun getTargetMethods(
-        daoClass: PsiClass,
-        project: Project,
-    ): List<PsiMethod> =
+    private fun getTargetMethods(daoClass: PsiClass): List<PsiMethod> =
         daoClass.methods.filter { method ->
             val isSupportedDaoMethod = SqlAnnotationConverter.supportedTypes.any { it.getPsiAnnotation(method) != null }
-            val psiDaoMethod = PsiDaoMethod(project, method)
+            val psiDaoMethod = PsiDaoMethod.getInstance(method)
             val isSqlAnnotationUsed = psiDaoMethod.useSqlAnnotation()
             val hasSqlFileWithParent = psiDaoMethod.sqlFile?.parent != null
 
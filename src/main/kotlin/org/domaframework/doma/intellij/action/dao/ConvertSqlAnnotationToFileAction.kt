@@ -44,7 +44,7 @@ class ConvertSqlAnnotationToFileAction : PsiElementBaseIntentionAction() {
         element: PsiElement,
     ): Boolean {
         val method = PsiTreeUtil.getParentOfType(element, PsiMethod::class.java) ?: return false
-        val psiDaoMethod = PsiDaoMethod(project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
 
         // Check if method has @Sql annotation
         // When a Sql annotation is present, a virtual SQL file is associated;
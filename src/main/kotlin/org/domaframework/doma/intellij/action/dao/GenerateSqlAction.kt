@@ -34,12 +34,11 @@ class GenerateSqlAction : AnAction() {
         e.presentation.isEnabledAndVisible = false
         val currentFile = e.getData(CommonDataKeys.PSI_FILE) ?: return
         val editor = e.getData(CommonDataKeys.EDITOR) ?: return
-        val project = e.project ?: return
         if (getDaoClass(currentFile) == null) return
         val element = currentFile.findElementAt(editor.caretModel.offset) ?: return
         val method = PsiTreeUtil.getParentOfType(element, PsiMethod::class.java) ?: return
 
-        val psiDaoMethod = PsiDaoMethod(project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         e.presentation.isEnabledAndVisible =
             psiDaoMethod.isUseSqlFileMethod() &&
             isJavaOrKotlinFileType(currentFile) &&
@@ -57,12 +56,11 @@ class GenerateSqlAction : AnAction() {
             inputEvent,
             startTime,
         )
-        val project = e.project ?: return
         val currentFile = e.getData(CommonDataKeys.PSI_FILE) ?: return
         val editor = e.getData(CommonDataKeys.EDITOR) ?: return
         val element = currentFile.findElementAt(editor.caretModel.offset) ?: return
         val method = PsiTreeUtil.getParentOfType(element, PsiMethod::class.java) ?: return
-        val psiDaoMethod = PsiDaoMethod(project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         psiDaoMethod.generateSqlFile()
         PluginLoggerUtil.countLoggingByAction(
             this::class.java.simpleName,
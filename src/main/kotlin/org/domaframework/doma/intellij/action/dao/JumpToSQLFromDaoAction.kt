@@ -36,9 +36,8 @@ class JumpToSQLFromDaoAction : AnAction() {
 
         val editor = e.getData(CommonDataKeys.EDITOR) ?: return
         val element = currentFile.findElementAt(editor.caretModel.offset) ?: return
-        val project = e.project ?: return
         val method = PsiTreeUtil.getParentOfType(element, PsiMethod::class.java) ?: return
-        val psiDaoMethod = PsiDaoMethod(project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
 
         e.presentation.isEnabledAndVisible =
             psiDaoMethod.isUseSqlFileMethod() &&
@@ -61,7 +60,7 @@ class JumpToSQLFromDaoAction : AnAction() {
         val element = currentFile.findElementAt(editor.caretModel.offset) ?: return
         val method = PsiTreeUtil.getParentOfType(element, PsiMethod::class.java) ?: return
         val project = e.project ?: return
-        val psiDaoMethod = PsiDaoMethod(project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
 
         PluginLoggerUtil.countLoggingByAction(
             this::class.java.simpleName,
@@ -45,7 +45,7 @@ class SqlAnnotationConverter(
     private val project: Project,
     private val method: PsiMethod,
 ) {
-    private val psiDaoMethod = PsiDaoMethod(project, method)
+    private val psiDaoMethod = PsiDaoMethod.getInstance(method)
     private val elementFactory = JavaPsiFacade.getElementFactory(project)
 
     companion object {
@@ -275,7 +275,7 @@ class SqlAnnotationConverter(
         ApplicationManager.getApplication().invokeLater {
             WriteCommandAction.runWriteCommandAction(project) {
                 // Re-fetch the SQL file after generation
-                val newPsiDaoMethod = PsiDaoMethod(project, method)
+                val newPsiDaoMethod = PsiDaoMethod.getInstance(method)
                 val sqlFile = newPsiDaoMethod.sqlFile ?: return@runWriteCommandAction
                 val psiFile = project.findFile(sqlFile) ?: return@runWriteCommandAction
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.action.sql
+
+import com.intellij.ide.errorTreeView.NewErrorTreeViewPanel
+import com.intellij.openapi.actionSystem.ActionUpdateThread
+import com.intellij.openapi.actionSystem.AnAction
+import com.intellij.openapi.actionSystem.AnActionEvent
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.progress.Task
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.Disposer
+import com.intellij.openapi.wm.ToolWindowId
+import com.intellij.openapi.wm.ToolWindowManager
+import com.intellij.ui.content.ContentFactory
+import com.intellij.ui.content.MessageView
+import com.intellij.util.ui.MessageCategory
+import org.domaframework.doma.intellij.bundle.MessageBundle
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import org.domaframework.doma.intellij.inspection.batch.DomaBatchAnalyzer
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Action to run the Doma inspections over all DAO and SQL files of the project in the background.
+ * Problems are listed in the Messages tool window as each file is analyzed.
+ */
+class AnalyzeAllDomaSqlAction : AnAction() {
+    override fun update(e: AnActionEvent) {
+        e.presentation.isEnabledAndVisible = e.project != null
+    }
+
+    override fun getActionUpdateThread(): ActionUpdateThread = ActionUpdateThread.BGT
+
+    override fun actionPerformed(e: AnActionEvent) {
+        val project = e.project ?: return
+        val startTime = System.nanoTime()
+        val inputEvent = e.inputEvent
+        val resultsView = openResultsView(project)
+
+        ProgressManager.getInstance().run(
+            object : Task.Backgroundable(project, MessageBundle.message("analyze.all.doma.sql.progress"), true) {
+                private var analyzedFileCount = 0
+                private val problemCount = AtomicInteger()
+
+                override fun run(indicator: ProgressIndicator) {
+                    val analyzer =
+                        DomaBatchAnalyzer(project) { problems ->
+                            problemCount.addAndGet(problems.size)
+                            ApplicationManager.getApplication().invokeLater {
+                                problems.forEach { problem ->
+                                    resultsView.addMessage(
+                                        if (problem.isError) MessageCategory.ERROR else MessageCategory.WARNING,
+                                        arrayOf(problem.message),
+                                        problem.file,
+                                        problem.line,
+                                        problem.column,
+                                        null,
+                                    )
+                                }
+                            }
+                        }
+                    analyzedFileCount = analyzer.run(indicator)
+                }
+
+                override fun onSuccess() {
+                    addSummary(
+                        MessageBundle.message("analyze.all.doma.sql.finished", analyzedFileCount, problemCount.get()),
+                    )
+                    PluginLoggerUtil.countLoggingByAction(
+                        AnalyzeAllDomaSqlAction::class.java.simpleName,
+                        "AnalyzeAllDomaSql",
+                        inputEvent,
+                        startTime,
+                    )
+                }
+
+                override fun onCancel() {
+                    addSummary(MessageBundle.message("analyze.all.doma.sql.canceled", problemCount.get()))
+                }
+
+                private fun addSummary(message: String) {
+                    resultsView.addMessage(MessageCategory.INFORMATION, arrayOf(message), null, -1, -1, null)
+                }
+            },
+        )
+    }
+
+    private fun openResultsView(project: Project): NewErrorTreeViewPanel {
+        val panel = NewErrorTreeViewPanel(project, null)
+        val messageView = MessageView.getInstance(project)
+        messageView.runWhenInitialized {
+            val content =
+                ContentFactory
+                    .getInstance()
+                    .createContent(panel, MessageBundle.message("analyze.all.doma.sql.results"), true)
+            Disposer.register(content, panel)
+            messageView.contentManager.addContent(content)
+            messageView.contentManager.setSelectedContent(content)
+            ToolWindowManager.getInstance(project).getToolWindow(ToolWindowId.MESSAGES_WINDOW)?.activate(null)
+        }
+        return panel
+    }
+}
@@ -17,10 +17,21 @@ package org.domaframework.doma.intellij.common.dao
 
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiFile
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
 import com.intellij.psi.util.PsiTreeUtil
 import org.domaframework.doma.intellij.common.util.DomaClassName
 
+/**
+ * Get the class annotated with @Dao in the file.
+ * The result is cached per file until the file is modified.
+ */
 fun getDaoClass(file: PsiFile): PsiClass? =
+    CachedValuesManager.getCachedValue(file) {
+        CachedValueProvider.Result.create(findDaoClass(file), file)
+    }
+
+private fun findDaoClass(file: PsiFile): PsiClass? =
     PsiTreeUtil
         .findChildrenOfType(file, PsiClass::class.java)
         .firstOrNull { it.hasAnnotation(DomaClassName.DAO.className) }
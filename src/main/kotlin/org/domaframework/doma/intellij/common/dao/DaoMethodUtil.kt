@@ -17,95 +17,55 @@ package org.domaframework.doma.intellij.common.dao
 
 import com.intellij.openapi.module.Module
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.vfs.VirtualFile
-import com.intellij.psi.JavaPsiFacade
+import com.intellij.openapi.vfs.VirtualFileManager
 import com.intellij.psi.PsiClass
-import com.intellij.psi.PsiClassOwner
 import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiJavaFile
-import com.intellij.psi.PsiManager
 import com.intellij.psi.PsiMethod
-import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
 import com.intellij.psi.util.PsiTreeUtil
 import org.domaframework.doma.intellij.common.CommonPathParameterUtil
 import org.domaframework.doma.intellij.common.RESOURCES_META_INF_PATH
-import org.domaframework.doma.intellij.common.getExtension
-import org.domaframework.doma.intellij.common.getJarRoot
-import org.domaframework.doma.intellij.common.getMethodDaoFilePath
 import org.domaframework.doma.intellij.common.isSupportFileType
 import org.domaframework.doma.intellij.common.util.InjectionSqlUtil.isInjectedSqlFile
 import org.domaframework.doma.intellij.extension.getContentRoot
 import org.domaframework.doma.intellij.extension.getJavaClazz
 import org.domaframework.doma.intellij.extension.getModule
+import org.domaframework.doma.intellij.extension.getResourcesFile
 import org.domaframework.doma.intellij.extension.getSourceRootDir
-import org.domaframework.doma.intellij.extension.psi.module
+import org.domaframework.doma.intellij.index.SqlFileDaoMethodIndex
 
 /**
  * Get DAO method corresponding to SQL file
  */
-fun findDaoMethod(
-    originalFile: PsiFile,
-    daoFile: VirtualFile? = null,
-): PsiMethod? {
+fun findDaoMethod(originalFile: PsiFile): PsiMethod? {
     val project = originalFile.project
     val virtualFile = originalFile.virtualFile ?: return null
-    val module = project.getModule(virtualFile)
 
     if (isInjectedSqlFile(originalFile)) {
         originalFile.let {
             return PsiTreeUtil.getParentOfType(originalFile.context, PsiMethod::class.java)
         }
     } else if (isSupportFileType(originalFile)) {
-        val methodName = virtualFile.nameWithoutExtension
-        val daoFile = daoFile ?: findDaoFile(project, originalFile) ?: return null
-        if (module != null) {
-            val contentRootPath = project.getContentRoot(virtualFile)?.path ?: return null
-            val daoJavaFile =
-                getDaoPathFromSqlFilePath(
-                    originalFile,
-                    contentRootPath,
-                ) ?: return null
+        val daoMethodEntry = SqlFileDaoMethodIndex.findDaoMethodEntry(project, virtualFile) ?: return null
+        val daoClass = findDaoClass(project, virtualFile, daoMethodEntry) ?: return null
+        val methodName = daoMethodEntry.methodName
+        if (project.getModule(virtualFile) == null) {
+            return daoClass.findMethodsByName(methodName, false).firstOrNull()
+        }
 
-            // TODO Support Kotlin Project
-            val daoFile = daoJavaFile.containingFile
-            val daoMethod =
-                when (daoFile) {
-                    is PsiJavaFile -> findUseSqlDaoMethod(daoFile, methodName)
-                    else -> null
-                }
-            return daoMethod
-        } else {
-            val fileType = getExtension(daoFile.fileType.name)
-            val jarRootPath = virtualFile.path.substringBefore("jar!").plus("jar!")
-            val methodDaoFilePath = getMethodDaoFilePath(virtualFile, jarRootPath, originalFile)
-            val daoClassName = getDaoClassName(methodDaoFilePath, fileType)
-            val daoFile = getJarRoot(virtualFile, originalFile) ?: return null
-            val psiClassFile = PsiManager.getInstance(originalFile.project).findFile(daoFile)
-            val psiClassOwner = psiClassFile as? PsiClassOwner ?: return null
-            val psiClass =
-                psiClassOwner.classes
-                    .firstOrNull { it.name == daoClassName }
-                    ?: run {
-                        val fqn =
-                            methodDaoFilePath
-                                .trimStart('/')
-                                .removeSuffix(".$fileType")
-                                .replace('/', '.')
-                        JavaPsiFacade
-                            .getInstance(project)
-                            .findClass(fqn, GlobalSearchScope.allScope(project))
-                    } ?: return null
-            return psiClass.findMethodsByName(methodName, false).firstOrNull()
+        // TODO Support Kotlin Project
+        return when (val daoFile = daoClass.containingFile) {
+            is PsiJavaFile -> findUseSqlDaoMethod(daoFile, methodName)
+            else -> null
         }
     }
     return null
 }
 
-private fun getDaoClassName(
-    methodDaoFilePath: String,
-    extensionName: String,
-): String = methodDaoFilePath.substringBefore(".$extensionName").substringAfter("dao/")
-
 /**
  * Get jump destination DAO method file from SQL file
  */
@@ -113,42 +73,55 @@ fun findDaoFile(
     project: Project,
     sqlFile: PsiFile,
 ): VirtualFile? {
-    val virtualFile = sqlFile.virtualFile
-
-    val contentRoot = project.getContentRoot(virtualFile)
-    if (contentRoot == null) {
-        return getJarRoot(virtualFile, sqlFile)
-    }
-    return getDaoPathFromSqlFilePath(
-        sqlFile,
-        contentRoot.path,
-    )?.containingFile?.virtualFile
+    if (isInjectedSqlFile(sqlFile)) return null
+    val virtualFile = sqlFile.virtualFile ?: return null
+    val daoMethodEntry = SqlFileDaoMethodIndex.findDaoMethodEntry(project, virtualFile) ?: return null
+    return findDaoClass(project, virtualFile, daoMethodEntry)?.containingFile?.virtualFile
 }
 
 /**
- * Generate DAO deployment path from SQL file path
+ * Resolve the DAO class registered in the index for the SQL file
+ * @param project project
  * @param sqlFile SQL File
- * @param contentRootPath project content Root Path
- * @return
+ * @param daoMethodEntry DAO method information obtained from the index
+ * @return DAO class
  */
-private fun getDaoPathFromSqlFilePath(
-    sqlFile: PsiFile,
-    contentRootPath: String,
+private fun findDaoClass(
+    project: Project,
+    sqlFile: VirtualFile,
+    daoMethodEntry: SqlFileDaoMethodIndex.DaoMethodEntry,
 ): PsiClass? {
-    if (isInjectedSqlFile(sqlFile)) {
-        return null
+    val module = project.getModule(sqlFile) ?: return project.getJavaClazz(daoMethodEntry.daoClassName)
+    val isTest = CommonPathParameterUtil.isTest(module, sqlFile)
+    return module.getJavaClazz(isTest, daoMethodEntry.daoClassName)
+}
+
+/**
+ * Get the SQL template files in the SQL directory of a DAO file, keyed by file name.
+ * The directory is listed once per DAO file until the VFS structure or the project roots change.
+ * @param daoFile DAO File
+ * @return SQL template files of the DAO, or an empty map if the directory does not exist
+ */
+fun getSqlTemplateFiles(daoFile: PsiFile): Map<String, VirtualFile> =
+    CachedValuesManager.getCachedValue(daoFile) {
+        CachedValueProvider.Result.create(
+            listSqlTemplateFiles(daoFile),
+            VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+            ProjectRootManager.getInstance(daoFile.project),
+        )
     }
-    val module = sqlFile.module ?: return null
-    val sqlPath = sqlFile.virtualFile?.path ?: return null
-    val relativePath =
-        sqlPath.substringAfter(contentRootPath, "").replace("/$RESOURCES_META_INF_PATH", "")
-    val resourcesRootPath = module.project.getSourceRootDir(sqlFile.virtualFile)?.name ?: ""
-    val isTest = CommonPathParameterUtil.isTest(module, sqlFile.virtualFile)
 
-    val packageName = relativePath.replaceFirst("/$resourcesRootPath/", "").replace("/${sqlFile.name}", "").replace("/", ".")
-    val daoClassFile = module.getJavaClazz(isTest, packageName)
+private fun listSqlTemplateFiles(daoFile: PsiFile): Map<String, VirtualFile> {
+    val daoVirtualFile = daoFile.virtualFile ?: daoFile.originalFile.virtualFile ?: return emptyMap()
+    val module = daoFile.project.getModule(daoVirtualFile) ?: return emptyMap()
+    val sqlDirPath = getRelativeSqlFilePathFromDaoFilePath(daoVirtualFile, module)
+    if (sqlDirPath.isEmpty()) return emptyMap()
 
-    return daoClassFile
+    val isTest = CommonPathParameterUtil.isTest(module, daoVirtualFile)
+    val sqlDir = module.getResourcesFile(sqlDirPath, isTest) ?: return emptyMap()
+    return sqlDir.children
+        .filter { !it.isDirectory }
+        .associateBy { it.name }
 }
 
 /**
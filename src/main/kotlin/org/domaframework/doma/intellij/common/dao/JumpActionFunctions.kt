@@ -87,7 +87,7 @@ fun findUseSqlDaoMethod(
         if (methods.isNotEmpty()) {
             val targetMethod =
                 methods.firstOrNull { method ->
-                    val psiDaoMethod = PsiDaoMethod(file.project, method)
+                    val psiDaoMethod = PsiDaoMethod.getInstance(method)
                     // When jumping after generating an annotation from an SQL file,
                     // since the SQL annotation is already present, allow jumping even if the SQL file also exists.
                     psiDaoMethod.isUseSqlFileMethod() || (psiDaoMethod.useSqlAnnotation() && psiDaoMethod.sqlFile != null)
@@ -0,0 +1,148 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.codeInsight.AnnotationUtil
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiClassType
+import com.intellij.psi.PsiType
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.searches.AnnotatedElementsSearch
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.domaframework.doma.intellij.common.util.DomaClassName
+import org.domaframework.doma.intellij.common.util.ModificationTrackerUtil
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import org.domaframework.doma.intellij.extension.getJavaClazz
+import org.domaframework.doma.intellij.extension.psi.getClassAnnotation
+import org.domaframework.doma.intellij.extension.psi.isDataType
+import org.domaframework.doma.intellij.extension.psi.isDomain
+import org.domaframework.doma.intellij.extension.psi.isEmbeddable
+import org.domaframework.doma.intellij.extension.psi.isEntity
+
+/**
+ * Doma roles of the classes in the project, keyed by qualified name.
+ *
+ * The table is built from the annotation index with one search per Doma annotation,
+ * and rebuilt when Java/Kotlin sources or the project roots change.
+ * While indexing, classes are resolved and classified one by one.
+ */
+@Service(Service.Level.PROJECT)
+class DomaTypeClassifier(
+    private val project: Project,
+) {
+    private val rolesByName: CachedValue<Map<String, Int>> =
+        CachedValuesManager.getManager(project).createCachedValue {
+            CachedValueProvider.Result.create(
+                collectRoles(),
+                ModificationTrackerUtil.getJvmSourceTracker(project),
+                ProjectRootManager.getInstance(project),
+            )
+        }
+
+    /**
+     * Get the roles of the class named [qualifiedName] as a combination of the role flags
+     */
+    fun getRoles(qualifiedName: String): Int {
+        val dumbService = DumbService.getInstance(project)
+        if (dumbService.isDumb) {
+            PluginLoggerUtil.countCacheLookup(CACHE_NAME, false)
+            // Resolve without the indexes, which are not ready
+            return dumbService.computeWithAlternativeResolveEnabled<Int, RuntimeException> {
+                classify(project.getJavaClazz(qualifiedName))
+            }
+        }
+        // A lookup that has to rebuild the table counts as a miss
+        PluginLoggerUtil.countCacheLookup(CACHE_NAME, rolesByName.hasUpToDateValue())
+        return rolesByName.value[qualifiedName] ?: NONE
+    }
+
+    /**
+     * Check whether the class named [qualifiedName] has any of [roles]
+     */
+    fun hasAnyRole(
+        qualifiedName: String,
+        roles: Int,
+    ): Boolean = (getRoles(qualifiedName) and roles) != NONE
+
+    /**
+     * Check whether the class of [type], without its type arguments, has any of [roles]
+     */
+    fun hasAnyRole(
+        type: PsiType,
+        roles: Int,
+    ): Boolean {
+        val rawName = (type as? PsiClassType)?.rawType()?.canonicalText ?: type.canonicalText
+        return hasAnyRole(rawName, roles)
+    }
+
+    private fun collectRoles(): Map<String, Int> {
+        val scope = GlobalSearchScope.allScope(project)
+        val roles = mutableMapOf<String, Int>()
+        for (annotation in ROLE_ANNOTATIONS) {
+            val annotationClass = project.getJavaClazz(annotation.className) ?: continue
+            AnnotatedElementsSearch.searchPsiClasses(annotationClass, scope).forEach { clazz ->
+                val name = clazz.qualifiedName ?: return@forEach
+                roles[name] = (roles[name] ?: NONE) or classify(clazz)
+            }
+        }
+        return roles
+    }
+
+    companion object {
+        const val NONE = 0
+        const val ENTITY = 1
+        const val IMMUTABLE_ENTITY = 1 shl 1
+        const val DOMAIN = 1 shl 2
+        const val EMBEDDABLE = 1 shl 3
+        const val DATA_TYPE = 1 shl 4
+
+        private const val CACHE_NAME = "DomaTypeClassifier"
+
+        private val ROLE_ANNOTATIONS =
+            listOf(
+                DomaClassName.ENTITY,
+                DomaClassName.DOMAIN,
+                DomaClassName.EMBEDDABLE,
+                DomaClassName.DATATYPE,
+            )
+
+        fun getInstance(project: Project): DomaTypeClassifier = project.getService(DomaTypeClassifier::class.java)
+
+        private fun classify(clazz: PsiClass?): Int {
+            if (clazz == null) return NONE
+            var roles = NONE
+            if (clazz.isEntity()) {
+                roles = roles or ENTITY
+                if (isImmutableEntity(clazz)) roles = roles or IMMUTABLE_ENTITY
+            }
+            if (clazz.isDomain()) roles = roles or DOMAIN
+            if (clazz.isEmbeddable()) roles = roles or EMBEDDABLE
+            if (clazz.isDataType()) roles = roles or DATA_TYPE
+            return roles
+        }
+
+        private fun isImmutableEntity(clazz: PsiClass): Boolean {
+            val entity = clazz.getClassAnnotation(DomaClassName.ENTITY.className) ?: return false
+            return AnnotationUtil.getBooleanAttributeValue(entity, "immutable") == true || clazz.isRecord
+        }
+    }
+}
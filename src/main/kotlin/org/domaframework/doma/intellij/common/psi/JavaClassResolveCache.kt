@@ -0,0 +1,84 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.psi.JavaPsiFacade
+import com.intellij.psi.PsiClass
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.util.CachedValue
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.domaframework.doma.intellij.common.util.ModificationTrackerUtil
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Classes resolved by qualified name in the project scope, including names that were not found.
+ *
+ * Entries are dropped when Java/Kotlin sources or the project roots change,
+ * so a class added later is found on the next lookup.
+ * Lookups in dumb mode are not cached because the indexes are incomplete.
+ */
+@Service(Service.Level.PROJECT)
+class JavaClassResolveCache(
+    private val project: Project,
+) {
+    private val classes: CachedValue<ConcurrentHashMap<String, Any>> =
+        CachedValuesManager.getManager(project).createCachedValue {
+            CachedValueProvider.Result.create(
+                ConcurrentHashMap(),
+                ModificationTrackerUtil.getJvmSourceTracker(project),
+                ProjectRootManager.getInstance(project),
+            )
+        }
+
+    fun findClass(qualifiedName: String): PsiClass? {
+        if (DumbService.isDumb(project)) return resolve(qualifiedName)
+
+        val entries = classes.value
+        val cached = entries[qualifiedName]
+        if (cached === NOT_FOUND) {
+            PluginLoggerUtil.countCacheLookup(CACHE_NAME, true)
+            return null
+        }
+        if (cached is PsiClass && cached.isValid) {
+            PluginLoggerUtil.countCacheLookup(CACHE_NAME, true)
+            return cached
+        }
+
+        PluginLoggerUtil.countCacheLookup(CACHE_NAME, false)
+        val clazz = resolve(qualifiedName)
+        entries[qualifiedName] = clazz ?: NOT_FOUND
+        return clazz
+    }
+
+    private fun resolve(qualifiedName: String): PsiClass? =
+        JavaPsiFacade
+            .getInstance(project)
+            .findClasses(qualifiedName, GlobalSearchScope.allScope(project))
+            .firstOrNull()
+
+    companion object {
+        private const val CACHE_NAME = "JavaClassResolveCache"
+        private val NOT_FOUND = Any()
+
+        fun getInstance(project: Project): JavaClassResolveCache = project.getService(JavaClassResolveCache::class.java)
+    }
+}
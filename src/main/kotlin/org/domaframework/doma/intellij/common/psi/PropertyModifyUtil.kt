@@ -15,6 +15,7 @@
  */
 package org.domaframework.doma.intellij.common.psi
 
+import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiField
 import com.intellij.psi.PsiModifier
 import com.intellij.psi.PsiType
@@ -35,11 +36,14 @@ open class PropertyModifyUtil {
             return true
         }
 
-        private fun isJavaPackage(type: PsiType): Boolean {
-            val clazzType = PsiUtil.resolveClassInType(type)
-            return clazzType?.qualifiedName?.startsWith("java.") == true ||
-                clazzType?.qualifiedName?.startsWith("javax.") == true ||
-                clazzType?.qualifiedName?.startsWith("jakarta.") == true
-        }
+        private fun isJavaPackage(type: PsiType): Boolean = isJavaPackage(PsiUtil.resolveClassInType(type))
+
+        /**
+         * Classes of the JDK and Jakarta EE only expose their public fields
+         */
+        fun isJavaPackage(clazz: PsiClass?): Boolean =
+            clazz?.qualifiedName?.startsWith("java.") == true ||
+                clazz?.qualifiedName?.startsWith("javax.") == true ||
+                clazz?.qualifiedName?.startsWith("jakarta.") == true
     }
 }
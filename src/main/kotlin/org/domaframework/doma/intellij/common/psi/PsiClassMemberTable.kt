@@ -0,0 +1,105 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiField
+import com.intellij.psi.PsiMember
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiModifier
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.domaframework.doma.intellij.common.util.ModificationTrackerUtil
+
+/**
+ * Fields and public methods of a class, including inherited ones, indexed by name.
+ *
+ * Fields of JDK and Jakarta EE classes are limited to public ones, as in [PropertyModifyUtil.filterPrivateField].
+ * Members keep the order of [PsiClass.getAllFields] and [PsiClass.getAllMethods] within the same name,
+ * and prefix searches return them in name order.
+ */
+class PsiClassMemberTable private constructor(
+    clazz: PsiClass,
+) {
+    private val fields: NameIndex<PsiField>
+    private val staticFields: NameIndex<PsiField>
+    private val publicMethods: NameIndex<PsiMethod>
+    private val staticPublicMethods: NameIndex<PsiMethod>
+
+    init {
+        val publicOnly = PropertyModifyUtil.isJavaPackage(clazz)
+        val accessibleFields =
+            clazz.allFields.filter { f -> !publicOnly || f.hasModifierProperty(PsiModifier.PUBLIC) }
+        val allPublicMethods = clazz.allMethods.filter { m -> m.hasModifierProperty(PsiModifier.PUBLIC) }
+
+        fields = NameIndex(accessibleFields)
+        staticFields = NameIndex(accessibleFields.filter { f -> f.hasModifierProperty(PsiModifier.STATIC) })
+        publicMethods = NameIndex(allPublicMethods)
+        staticPublicMethods = NameIndex(allPublicMethods.filter { m -> m.hasModifierProperty(PsiModifier.STATIC) })
+    }
+
+    fun findField(name: String): PsiField? = fields.find(name).firstOrNull()
+
+    fun searchFields(prefix: String): List<PsiField> = fields.search(prefix)
+
+    fun searchStaticFields(prefix: String): List<PsiField> = staticFields.search(prefix)
+
+    fun findMethods(name: String): List<PsiMethod> = publicMethods.find(name)
+
+    fun searchMethods(prefix: String): List<PsiMethod> = publicMethods.search(prefix)
+
+    fun findStaticMethods(name: String): List<PsiMethod> = staticPublicMethods.find(name)
+
+    fun searchStaticMethods(prefix: String): List<PsiMethod> = staticPublicMethods.search(prefix)
+
+    private class NameIndex<T : PsiMember>(
+        members: List<T>,
+    ) {
+        private val membersByName: Map<String, List<T>> = members.groupBy { it.name ?: "" }
+        private val sortedNames: Array<String> = membersByName.keys.sorted().toTypedArray()
+
+        fun find(name: String): List<T> = membersByName[name] ?: emptyList()
+
+        fun search(prefix: String): List<T> {
+            if (prefix.isEmpty()) return sortedNames.flatMap { find(it) }
+
+            val insertion = sortedNames.binarySearch(prefix)
+            var index = if (insertion >= 0) insertion else -insertion - 1
+            val result = mutableListOf<T>()
+            while (index < sortedNames.size && sortedNames[index].startsWith(prefix)) {
+                result.addAll(find(sortedNames[index]))
+                index++
+            }
+            return result
+        }
+    }
+
+    companion object {
+        /**
+         * Get the member table of [clazz], rebuilt when Java/Kotlin sources or the project roots change
+         */
+        fun getInstance(clazz: PsiClass): PsiClassMemberTable =
+            CachedValuesManager.getCachedValue(clazz) {
+                val project = clazz.project
+                CachedValueProvider.Result.create(
+                    PsiClassMemberTable(clazz),
+                    ModificationTrackerUtil.getJvmSourceTracker(project),
+                    ProjectRootManager.getInstance(project),
+                )
+            }
+    }
+}
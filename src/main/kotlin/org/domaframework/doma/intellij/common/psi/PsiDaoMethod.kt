@@ -19,10 +19,14 @@ import com.intellij.lang.Language
 import com.intellij.openapi.application.ApplicationManager
 import com.intellij.openapi.command.WriteCommandAction
 import com.intellij.openapi.fileEditor.FileEditorManager
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.DumbService
 import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.vfs.StandardFileSystems
 import com.intellij.openapi.vfs.VfsUtil
 import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
 import com.intellij.psi.PsiAnnotation
 import com.intellij.psi.PsiDocumentManager
 import com.intellij.psi.PsiFileFactory
@@ -30,11 +34,15 @@ import com.intellij.psi.PsiLiteralExpression
 import com.intellij.psi.PsiManager
 import com.intellij.psi.PsiMethod
 import com.intellij.psi.PsiNameValuePair
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
 import com.intellij.util.IncorrectOperationException
 import org.domaframework.doma.intellij.common.CommonPathParameterUtil
 import org.domaframework.doma.intellij.common.RESOURCES_META_INF_PATH
 import org.domaframework.doma.intellij.common.dao.getRelativeSqlFilePathFromDaoFilePath
+import org.domaframework.doma.intellij.common.dao.getSqlTemplateFiles
 import org.domaframework.doma.intellij.common.getExtension
+import org.domaframework.doma.intellij.common.util.ModificationTrackerUtil
 import org.domaframework.doma.intellij.extension.findFile
 import org.domaframework.doma.intellij.extension.getContentRoot
 import org.domaframework.doma.intellij.extension.getModule
@@ -42,26 +50,33 @@ import org.domaframework.doma.intellij.extension.getResourcesFile
 import org.domaframework.doma.intellij.extension.getSourceRootDir
 import org.domaframework.doma.intellij.extension.psi.DomaAnnotationType
 import org.domaframework.doma.intellij.extension.psi.module
+import org.domaframework.doma.intellij.index.SqlFileDaoMethodIndex
 import org.domaframework.doma.intellij.setting.SqlLanguage
 import java.io.File
 import java.io.IOException
 
 /**
  * Class that handles DAO method information
+ *
+ * Obtain instances through [getInstance]; the result is cached per [PsiMethod]
+ * until Java/Kotlin sources, the VFS structure or the project roots change.
  */
-class PsiDaoMethod(
+class PsiDaoMethod private constructor(
     private val psiProject: Project,
     val psiMethod: PsiMethod,
 ) {
     private var isTest = false
     var sqlFile: VirtualFile? = null
+        private set
     private var sqlFilePath: String = ""
 
     private val daoFile: VirtualFile =
         psiMethod.containingFile.virtualFile
             ?: psiMethod.containingFile.originalFile.virtualFile
     var daoType: DomaAnnotationType = DomaAnnotationType.Unknown
+        private set
     var sqlFileOption: Boolean = false
+        private set
 
     init {
         setDaoAnnotationType()
@@ -140,11 +155,11 @@ class PsiDaoMethod(
                 sqlFile = jarRoot?.findFileByRelativePath(sqlFilePath)
                 return
             } else {
+                // Methods of the same DAO share one listing of the SQL directory
+                val sqlFileName = sqlFilePath.substringAfterLast("/")
                 sqlFile =
-                    module.getResourcesFile(
-                        sqlFilePath,
-                        isTest,
-                    )
+                    getSqlTemplateFiles(psiMethod.containingFile)[sqlFileName]
+                        ?: findSqlFileInModule(module)
                 return
             }
         }
@@ -169,6 +184,17 @@ class PsiDaoMethod(
         }
     }
 
+    private fun findSqlFileInModule(module: Module): VirtualFile? =
+        if (DumbService.isDumb(psiProject)) {
+            module.getResourcesFile(sqlFilePath, isTest)
+        } else {
+            SqlFileDaoMethodIndex.findSqlFile(
+                psiProject,
+                sqlFilePath,
+                module.getModuleScope(isTest),
+            )
+        }
+
     fun generateSqlFile(fileJump: Boolean = true) {
         ApplicationManager.getApplication().runReadAction {
             if (sqlFilePath.isEmpty()) return@runReadAction
@@ -224,4 +250,20 @@ class PsiDaoMethod(
             document.insertString(0, "-- Generated By Doma Tools")
         }
     }
+
+    companion object {
+        /**
+         * Get the cached DAO method information for [psiMethod]
+         */
+        fun getInstance(psiMethod: PsiMethod): PsiDaoMethod =
+            CachedValuesManager.getCachedValue(psiMethod) {
+                val project = psiMethod.project
+                CachedValueProvider.Result.create(
+                    PsiDaoMethod(project, psiMethod),
+                    ModificationTrackerUtil.getJvmSourceTracker(project),
+                    VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                    ProjectRootManager.getInstance(project),
+                )
+            }
+    }
 }
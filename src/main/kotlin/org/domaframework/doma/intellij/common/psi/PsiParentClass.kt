@@ -20,7 +20,6 @@ import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiField
 import com.intellij.psi.PsiManager
 import com.intellij.psi.PsiMethod
-import com.intellij.psi.PsiModifier
 import com.intellij.psi.PsiType
 import com.intellij.psi.util.PsiTypesUtil
 import org.domaframework.doma.intellij.common.util.MethodMatcher
@@ -37,33 +36,13 @@ open class PsiParentClass(
 
     private fun psiClass() = PsiTypesUtil.getPsiClass(type)
 
-    private val fields: Array<PsiField>? = clazz?.allFields
-    private val methods: Array<PsiMethod>? = clazz?.allMethods
+    private val members: PsiClassMemberTable? by lazy { clazz?.let { PsiClassMemberTable.getInstance(it) } }
 
-    private fun getMethods(): List<PsiMethod>? =
-        methods?.filter { m ->
-            m.hasModifierProperty(PsiModifier.PUBLIC)
-        }
+    fun findField(fieldName: String): PsiField? = members?.findField(fieldName)
 
-    fun findField(fieldName: String): PsiField? =
-        fields?.firstOrNull { f ->
-            f.name == fieldName &&
-                PropertyModifyUtil.filterPrivateField(f, type)
-        }
+    fun searchField(fieldName: String): List<PsiField>? = members?.searchFields(fieldName)
 
-    fun searchField(fieldName: String): List<PsiField>? =
-        fields?.filter { f ->
-            f.name.startsWith(fieldName) &&
-                PropertyModifyUtil.filterPrivateField(f, type)
-        }
-
-    fun findMethod(methodName: String): PsiMethod? =
-        getMethods()
-            ?.filter { m ->
-                m.hasModifierProperty(PsiModifier.PUBLIC)
-            }?.firstOrNull { m ->
-                m.name.substringBefore("(") == methodName.substringBefore("(")
-            }
+    fun findMethod(methodName: String): PsiMethod? = findMethods(methodName).firstOrNull()
 
     fun findMethod(
         methodExpr: PsiElement,
@@ -88,36 +67,15 @@ open class PsiParentClass(
     }
 
     fun findMethods(methodName: String): List<PsiMethod> =
-        getMethods()
-            ?.filter { m ->
-                m.hasModifierProperty(PsiModifier.PUBLIC) && m.name.substringBefore("(") == methodName.substringBefore("(")
-            } ?: emptyList()
+        members?.findMethods(methodName.substringBefore("(")) ?: emptyList()
 
-    fun searchMethod(methodName: String): List<PsiMethod>? =
-        getMethods()?.filter { m ->
-            m.name.substringBefore("(").startsWith(methodName.substringBefore("(")) &&
-                m.hasModifierProperty(PsiModifier.PUBLIC)
-        }
+    fun searchMethod(methodName: String): List<PsiMethod>? = members?.searchMethods(methodName.substringBefore("("))
 
-    fun searchStaticField(fieldName: String): List<PsiField>? =
-        fields
-            ?.filter { f ->
-                f.hasModifierProperty(PsiModifier.STATIC) &&
-                    f.name.startsWith(fieldName) &&
-                    PropertyModifyUtil.filterPrivateField(f, type)
-            }
+    fun searchStaticField(fieldName: String): List<PsiField>? = members?.searchStaticFields(fieldName)
 
     fun searchStaticMethod(methodName: String): List<PsiMethod>? =
-        methods?.filter { m ->
-            m.hasModifierProperty(PsiModifier.STATIC) &&
-                m.hasModifierProperty(PsiModifier.PUBLIC) &&
-                m.name.substringBefore("(").startsWith(methodName.substringBefore("("))
-        }
+        members?.searchStaticMethods(methodName.substringBefore("("))
 
     fun findStaticMethods(methodName: String): List<PsiMethod> =
-        getMethods()
-            ?.filter { m ->
-                m.hasModifierProperty(PsiModifier.STATIC) &&
-                    m.hasModifierProperty(PsiModifier.PUBLIC) && m.name.substringBefore("(") == methodName.substringBefore("(")
-            } ?: emptyList()
+        members?.findStaticMethods(methodName.substringBefore("(")) ?: emptyList()
 }
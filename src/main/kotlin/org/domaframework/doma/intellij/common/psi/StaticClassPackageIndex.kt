@@ -0,0 +1,278 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ModuleRootEvent
+import com.intellij.openapi.roots.ModuleRootListener
+import com.intellij.openapi.roots.ProjectFileIndex
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.openapi.vfs.newvfs.BulkFileListener
+import com.intellij.openapi.vfs.newvfs.events.VFileContentChangeEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileCopyEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileCreateEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileDeleteEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent
+import com.intellij.psi.JavaPsiFacade
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiJavaFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.PsiTreeChangeAdapter
+import com.intellij.psi.PsiTreeChangeEvent
+import com.intellij.psi.search.GlobalSearchScope
+import org.domaframework.doma.intellij.common.sql.directive.StaticClassPackageSearchResult
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Prefix-searchable tree of the packages and classes visible from a module,
+ * used by `@Class@` completion.
+ *
+ * One tree is kept per module and test flag, limited to the module runtime scope.
+ * Package nodes load their sub packages and classes on first access, and only the
+ * packages touched by VFS or Java PSI changes are reloaded; a Java PSI change reloads only the classes.
+ * Root changes drop all trees.
+ */
+@Service(Service.Level.PROJECT)
+class StaticClassPackageIndex(
+    private val project: Project,
+) : Disposable {
+    private val trees = ConcurrentHashMap<Pair<String, Boolean>, PackageTree>()
+
+    init {
+        val connection = project.messageBus.connect(this)
+        connection.subscribe(
+            VirtualFileManager.VFS_CHANGES,
+            object : BulkFileListener {
+                override fun after(events: List<VFileEvent>) {
+                    events.forEach { event ->
+                        getChangedDirectories(event).forEach { invalidateDirectory(it) }
+                    }
+                }
+            },
+        )
+        connection.subscribe(
+            ModuleRootListener.TOPIC,
+            object : ModuleRootListener {
+                override fun rootsChanged(event: ModuleRootEvent) {
+                    trees.clear()
+                }
+            },
+        )
+        PsiManager.getInstance(project).addPsiTreeChangeListener(
+            object : PsiTreeChangeAdapter() {
+                override fun childAdded(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+
+                override fun childRemoved(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+
+                override fun childReplaced(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+
+                override fun childMoved(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+
+                override fun childrenChanged(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+
+                override fun propertyChanged(event: PsiTreeChangeEvent) = invalidateJavaFile(event)
+            },
+            this,
+        )
+    }
+
+    /**
+     * Search the packages and classes that follow the typed package path.
+     *
+     * Each word except the last selects a sub package, preferring an exact name over one that contains it.
+     * The sub packages and classes (including nested classes) of the selected package are returned,
+     * up to [MAX_RESULTS] entries. Classes are not listed for the default package.
+     *
+     * @param module module of the SQL file
+     * @param isTest whether the SQL file is in a test source or resource directory
+     * @param words package path typed after `@`, split by "."
+     */
+    fun search(
+        module: Module,
+        isTest: Boolean,
+        words: List<String>,
+    ): List<StaticClassPackageSearchResult> {
+        val tree =
+            trees.computeIfAbsent(module.name to isTest) {
+                PackageTree(project, module.getModuleRuntimeScope(isTest))
+            }
+
+        var node = tree.root
+        for (word in words.dropLast(1)) {
+            val children = node.getSubPackages(tree)
+            node = children.find { it.name == word }
+                ?: children.find { it.name.contains(word) }
+                ?: return emptyList()
+        }
+
+        val packages =
+            node.getSubPackages(tree).asSequence().map { subPackage ->
+                StaticClassPackageSearchResult(
+                    subPackage.qualifiedName,
+                    subPackage.name,
+                    subPackage.qualifiedName,
+                    "package",
+                )
+            }
+        val classes =
+            if (node === tree.root) emptySequence() else node.getClasses(tree).asSequence()
+        return (packages + classes).distinct().take(MAX_RESULTS).toList()
+    }
+
+    private fun getChangedDirectories(event: VFileEvent): List<VirtualFile> =
+        when (event) {
+            is VFileCreateEvent -> listOf(event.parent)
+            is VFileCopyEvent -> listOf(event.newParent)
+            is VFileMoveEvent -> listOf(event.oldParent, event.newParent)
+            is VFileDeleteEvent, is VFileContentChangeEvent -> listOfNotNull(event.file?.parent)
+            is VFilePropertyChangeEvent ->
+                if (event.isRename) listOfNotNull(event.file.parent) else emptyList()
+            else -> emptyList()
+        }
+
+    private fun invalidateDirectory(
+        directory: VirtualFile,
+        classesOnly: Boolean = false,
+    ) {
+        if (trees.isEmpty() || !directory.isValid) return
+        val packageName = ProjectFileIndex.getInstance(project).getPackageNameByDirectory(directory) ?: return
+        invalidatePackage(packageName, classesOnly)
+    }
+
+    /**
+     * Editing a Java file can change the classes of its package but never the sub packages,
+     * which only change with directories and are handled by the VFS listener.
+     */
+    private fun invalidateJavaFile(event: PsiTreeChangeEvent) {
+        val directory = (event.file as? PsiJavaFile)?.virtualFile?.parent ?: return
+        invalidateDirectory(directory, classesOnly = true)
+    }
+
+    private fun invalidatePackage(
+        packageName: String,
+        classesOnly: Boolean,
+    ) {
+        val path = if (packageName.isEmpty()) emptyList() else packageName.split(".")
+        trees.values.forEach { tree ->
+            var node: PackageNode? = tree.root
+            for (name in path) {
+                node = node?.findLoadedSubPackage(name) ?: return@forEach
+            }
+            if (classesOnly) node?.resetClasses() else node?.reset()
+        }
+    }
+
+    override fun dispose() {
+        trees.clear()
+    }
+
+    private class PackageTree(
+        val project: Project,
+        val scope: GlobalSearchScope,
+    ) {
+        val root = PackageNode("", "")
+    }
+
+    /**
+     * Package in a [PackageTree]. Sub packages and classes are loaded lazily and
+     * hold only names, so a node stays usable after the PSI it was built from is gone.
+     */
+    private class PackageNode(
+        val qualifiedName: String,
+        val name: String,
+    ) {
+        @Volatile
+        private var subPackages: List<PackageNode>? = null
+
+        @Volatile
+        private var classes: List<StaticClassPackageSearchResult>? = null
+
+        fun getSubPackages(tree: PackageTree): List<PackageNode> =
+            subPackages ?: loadSubPackages(tree).also { subPackages = it }
+
+        fun getClasses(tree: PackageTree): List<StaticClassPackageSearchResult> =
+            classes ?: loadClasses(tree).also { classes = it }
+
+        fun findLoadedSubPackage(name: String): PackageNode? = subPackages?.find { it.name == name }
+
+        fun reset() {
+            subPackages = null
+            classes = null
+        }
+
+        fun resetClasses() {
+            classes = null
+        }
+
+        private fun loadSubPackages(tree: PackageTree): List<PackageNode> {
+            val psiPackage = JavaPsiFacade.getInstance(tree.project).findPackage(qualifiedName) ?: return emptyList()
+            return psiPackage
+                .getSubPackages(tree.scope)
+                .mapNotNull { subPackage ->
+                    subPackage.name?.let { PackageNode(subPackage.qualifiedName, it) }
+                }.sortedBy { it.name }
+        }
+
+        private fun loadClasses(tree: PackageTree): List<StaticClassPackageSearchResult> {
+            val psiPackage = JavaPsiFacade.getInstance(tree.project).findPackage(qualifiedName) ?: return emptyList()
+            val foundClasses = mutableListOf<PsiClass>()
+            psiPackage.getFiles(tree.scope).forEach { file ->
+                (file as? PsiJavaFile)?.classes?.forEach { visitClass(it, foundClasses) }
+            }
+            return foundClasses.map { clazz ->
+                val clazzName = clazz.name ?: ""
+                val packageName = clazz.qualifiedName?.replace(".$clazzName", "") ?: clazzName
+                StaticClassPackageSearchResult(
+                    packageName,
+                    clazzName,
+                    "$packageName.$clazzName",
+                    createFileType(clazz),
+                )
+            }
+        }
+
+        private fun visitClass(
+            clazz: PsiClass,
+            foundClasses: MutableList<PsiClass>,
+        ) {
+            foundClasses += clazz
+            clazz.innerClasses.forEach { nested ->
+                visitClass(nested, foundClasses)
+            }
+        }
+
+        private fun createFileType(type: PsiClass): String =
+            when {
+                type.isEnum -> "enum"
+                type.isAnnotationType -> "annotation"
+                type.isInterface -> "interface"
+                type.isRecord -> "record"
+                else -> type.containingFile?.fileType?.name ?: ""
+            }
+    }
+
+    companion object {
+        private const val MAX_RESULTS = 1000
+
+        fun getInstance(project: Project): StaticClassPackageIndex = project.getService(StaticClassPackageIndex::class.java)
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.util
+
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiType
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import org.domaframework.doma.intellij.common.psi.MethodParamContext
+import org.domaframework.doma.intellij.common.psi.PsiParentClass
+import org.domaframework.doma.intellij.psi.SqlElParameters
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Per-file memo of field access chain steps.
+ *
+ * A step is keyed by the type the chain started from and the text of the chain up to that element,
+ * so `a.b.c` reuses the steps already resolved for `a.b` by any other bind variable of the file.
+ * Steps that call a method with arguments are not memoized,
+ * because the argument types depend on where the chain is written.
+ */
+class FieldAccessChainCache private constructor() {
+    /**
+     * Resolution state after a chain element
+     */
+    data class Step(
+        val field: PsiParentClass?,
+        val method: PsiParentClass?,
+        val parentListBaseType: PsiType?,
+        val nestIndex: Int,
+    ) {
+        fun applyTo(context: FieldMethodResolver.ResolveContext) {
+            context.parentListBaseType = parentListBaseType
+            context.nestIndex = nestIndex
+        }
+    }
+
+    private val steps = ConcurrentHashMap<String, Step>()
+
+    fun get(chainKey: String): Step? {
+        val step = steps[chainKey]
+        PluginLoggerUtil.countCacheLookup(CACHE_NAME, step != null)
+        return step
+    }
+
+    fun put(
+        chainKey: String,
+        step: Step,
+    ) {
+        steps[chainKey] = step
+    }
+
+    companion object {
+        private const val CACHE_NAME = "FieldAccessChainCache"
+        private const val KEY_SEPARATOR = '\u0000'
+
+        /**
+         * Get the memo of [file]; it is dropped on any change of the file, Java/Kotlin sources or project roots
+         */
+        fun getInstance(file: PsiFile): FieldAccessChainCache =
+            CachedValuesManager.getCachedValue(file) {
+                val project = file.project
+                CachedValueProvider.Result.create(
+                    FieldAccessChainCache(),
+                    file,
+                    ModificationTrackerUtil.getJvmSourceTracker(project),
+                    ProjectRootManager.getInstance(project),
+                )
+            }
+
+        /**
+         * Key of the chain root, built from the resolution state before the first element
+         */
+        fun rootKey(context: FieldMethodResolver.ResolveContext): String =
+            buildString {
+                append(context.parent.type.canonicalText)
+                append(KEY_SEPARATOR)
+                context.parentListBaseType?.let { append(it.canonicalText) }
+                append(KEY_SEPARATOR)
+                append(context.nestIndex)
+            }
+
+        /**
+         * Extend [prefixKey] with [element], or return null when the step cannot be memoized.
+         * A call is marked with `()`, because `a.foo()` and `a.foo` continue from different types
+         * when a field and a method share the name.
+         */
+        fun stepKey(
+            prefixKey: String,
+            element: PsiElement,
+            name: String,
+        ): String? {
+            val methodParams = MethodParamContext.of(element).methodParams
+            if (methodParams != null && methodParams.elExprList.isNotEmpty()) return null
+            return if (element.nextSibling is SqlElParameters) "$prefixKey.$name()" else "$prefixKey.$name"
+        }
+    }
+}
@@ -19,10 +19,11 @@ import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor
 import com.intellij.psi.PsiType
 import com.intellij.psi.PsiTypes
-import com.intellij.psi.util.CachedValue
 import com.intellij.psi.util.CachedValueProvider
 import com.intellij.psi.util.CachedValuesManager
 import com.intellij.psi.util.PsiTreeUtil
@@ -66,10 +67,56 @@ class ForDirectiveUtil {
         END,
     }
 
-    companion object {
-        private val cachedForDirectiveBlocks: MutableMap<PsiElement, CachedValue<List<BlockToken>>> =
-            mutableMapOf()
+    /**
+     * Node of the %for/%if nesting that is open after a directive.
+     * Nodes are shared between positions, so the whole file needs one node per directive.
+     */
+    private class OpenBlock(
+        val block: BlockToken,
+        val parent: OpenBlock?,
+    )
+
+    /**
+     * Immutable %for/%if/%end structure of a SQL file.
+     * [positions] are sorted, and [openBlocks] holds the innermost open block after each directive.
+     */
+    private class DirectiveTree(
+        val positions: IntArray,
+        val openBlocks: Array<OpenBlock?>,
+    ) {
+        /**
+         * Get the blocks that are open before [offset], from the outermost
+         */
+        fun getOpenBlocks(offset: Int): List<BlockToken> {
+            val index = lastIndexBefore(offset)
+            if (index < 0) return emptyList()
+            val blocks = mutableListOf<BlockToken>()
+            var node = openBlocks[index]
+            while (node != null) {
+                blocks.add(node.block)
+                node = node.parent
+            }
+            return blocks.asReversed()
+        }
+
+        private fun lastIndexBefore(offset: Int): Int {
+            var low = 0
+            var high = positions.size - 1
+            var result = -1
+            while (low <= high) {
+                val mid = (low + high) ushr 1
+                if (positions[mid] < offset) {
+                    result = mid
+                    low = mid + 1
+                } else {
+                    high = mid - 1
+                }
+            }
+            return result
+        }
+    }
 
+    companion object {
         const val HAS_NEXT_PREFIX = "_has_next"
         const val INDEX_PREFIX = "_index"
 
@@ -83,28 +130,53 @@ class ForDirectiveUtil {
             targetElement: PsiElement,
             skipSelf: Boolean = true,
         ): List<BlockToken> {
-            val cachedValue =
-                cachedForDirectiveBlocks.getOrPut(targetElement) {
-                    CachedValuesManager.getManager(targetElement.project).createCachedValue {
-                        val file = targetElement.containingFile ?: return@createCachedValue null
-                        val directiveBlocks = extractDirectiveBlocks(file)
-                        val stack = buildDirectiveStack(directiveBlocks, targetElement, skipSelf)
-
-                        CachedValueProvider.Result.create(
-                            stack.filter { it.type == BlockType.FOR },
-                            file,
-                        )
-                    }
-                }
-            return cachedValue.value
+            val file = targetElement.containingFile ?: return emptyList()
+            val positionThreshold = if (skipSelf) targetElement.textOffset else targetElement.textOffset + 1
+            val openForBlocks =
+                getDirectiveTree(file)
+                    .getOpenBlocks(positionThreshold)
+                    .filter { it.type == BlockType.FOR }
+            if (!skipSelf) return openForBlocks
+
+            val targetForDirective = PsiTreeUtil.getParentOfType(targetElement, SqlElForDirective::class.java)
+            return openForBlocks.filter {
+                PsiTreeUtil.getParentOfType(it.item, SqlElForDirective::class.java) != targetForDirective
+            }
         }
 
-        private fun extractDirectiveBlocks(file: PsiElement): List<BlockToken> =
-            PsiTreeUtil
-                .findChildrenOfType(file, PsiElement::class.java)
-                .filter { isDirectiveElement(it) }
-                .sortedBy { it.textOffset }
-                .map { createBlockToken(it) }
+        private fun getDirectiveTree(file: PsiFile): DirectiveTree =
+            CachedValuesManager.getCachedValue(file) {
+                CachedValueProvider.Result.create(buildDirectiveTree(file), file)
+            }
+
+        private fun buildDirectiveTree(file: PsiFile): DirectiveTree {
+            val directiveBlocks = mutableListOf<BlockToken>()
+            file.accept(
+                object : PsiRecursiveElementWalkingVisitor() {
+                    override fun visitElement(element: PsiElement) {
+                        if (isDirectiveElement(element)) {
+                            directiveBlocks.add(createBlockToken(element))
+                        }
+                        super.visitElement(element)
+                    }
+                },
+            )
+            directiveBlocks.sortBy { it.position }
+
+            val positions = IntArray(directiveBlocks.size)
+            val openBlocks = arrayOfNulls<OpenBlock>(directiveBlocks.size)
+            var current: OpenBlock? = null
+            directiveBlocks.forEachIndexed { index, block ->
+                current =
+                    when (block.type) {
+                        BlockType.FOR, BlockType.IF -> OpenBlock(block, current)
+                        BlockType.END -> current?.parent
+                    }
+                positions[index] = block.position
+                openBlocks[index] = current
+            }
+            return DirectiveTree(positions, openBlocks)
+        }
 
         private fun isDirectiveElement(element: PsiElement): Boolean =
             element.elementType == SqlTypes.EL_FOR ||
@@ -118,7 +190,7 @@ class ForDirectiveUtil {
                     BlockToken(
                         BlockType.FOR,
                         item ?: element,
-                        item?.textOffset ?: 0,
+                        item?.textOffset ?: element.textOffset,
                     )
                 }
 
@@ -135,43 +207,6 @@ class ForDirectiveUtil {
                 }
             }
 
-        private fun buildDirectiveStack(
-            directiveBlocks: List<BlockToken>,
-            targetElement: PsiElement,
-            skipSelf: Boolean,
-        ): List<BlockToken> {
-            val stack = mutableListOf<BlockToken>()
-            val positionThreshold = if (skipSelf) targetElement.textOffset else targetElement.textOffset + 1
-
-            directiveBlocks
-                .filter { it.position < positionThreshold }
-                .forEach { block ->
-                    when (block.type) {
-                        BlockType.FOR, BlockType.IF -> stack.add(block)
-                        BlockType.END -> if (stack.isNotEmpty()) stack.removeAt(stack.lastIndex)
-                    }
-                }
-
-            return if (skipSelf) {
-                stack.filter { !isSameForDirective(it.item, targetElement) }
-            } else {
-                stack
-            }
-        }
-
-        private fun isSameForDirective(
-            token: PsiElement,
-            targetElement: PsiElement,
-        ): Boolean =
-            PsiTreeUtil.getParentOfType(
-                token,
-                SqlElForDirective::class.java,
-            ) ==
-                PsiTreeUtil.getParentOfType(
-                    targetElement,
-                    SqlElForDirective::class.java,
-                )
-
         fun findForItem(
             targetElement: PsiElement,
             skipSelf: Boolean = true,
@@ -308,7 +343,7 @@ class ForDirectiveUtil {
         ): PsiParentClass? {
             val isBatchAnnotation =
                 daoMethod?.let {
-                    PsiDaoMethod(project, it).daoType.isBatchAnnotation()
+                    PsiDaoMethod.getInstance(it).daoType.isBatchAnnotation()
                 } == true
 
             val declaration = forDirectiveDeclaration as? ForDeclarationItem
@@ -393,7 +428,7 @@ class ForDirectiveUtil {
                     val topElementText =
                         forDirectiveDeclaration.getDeclarationChildren().firstOrNull()?.text
                             ?: return null
-                    isBatchAnnotation = PsiDaoMethod(project, daoMethod).daoType.isBatchAnnotation()
+                    isBatchAnnotation = PsiDaoMethod.getInstance(daoMethod).daoType.isBatchAnnotation()
 
                     val matchParam = daoMethod.findParameter(cleanString(topElementText))
                     val daoParamType = matchParam?.type ?: return null
@@ -566,6 +601,8 @@ class ForDirectiveUtil {
             shortName: String,
             findFieldMethod: ((PsiType) -> PsiParentClass)?,
         ): FieldAccessContext {
+            val chainCache = searchBlocks.firstOrNull()?.containingFile?.let { FieldAccessChainCache.getInstance(it) }
+            var chainKey = chainCache?.let { FieldAccessChainCache.rootKey(context) }
             for (element in searchBlocks) {
                 val searchElm = cleanString(getSearchElementText(element))
                 if (searchElm.isEmpty()) {
@@ -573,17 +610,36 @@ class ForDirectiveUtil {
                     return context
                 }
 
-                val field = FieldMethodResolver.resolveField(context, searchElm, project)
-                val methodResult = FieldMethodResolver.resolveMethod(context, element, searchElm, project, shortName)
-
-                context.nestIndex++
-                if (field == null && methodResult.type == null) {
-                    context.completeResult = null
-                    context.validationResult = methodResult.validation
-                    return context
+                chainKey = chainKey?.let { FieldAccessChainCache.stepKey(it, element, searchElm) }
+                val cachedStep = chainKey?.let { chainCache?.get(it) }
+                val field: PsiParentClass?
+                val method: PsiParentClass?
+                if (cachedStep != null) {
+                    cachedStep.applyTo(context)
+                    field = cachedStep.field
+                    method = cachedStep.method
+                } else {
+                    val validationResult = context.validationResult
+                    field = FieldMethodResolver.resolveField(context, searchElm, project)
+                    val methodResult = FieldMethodResolver.resolveMethod(context, element, searchElm, project, shortName)
+                    method = methodResult.type
+
+                    if (field == null && method == null) {
+                        context.nestIndex++
+                        context.completeResult = null
+                        context.validationResult = methodResult.validation
+                        return context
+                    }
+                    // A step that reported a parameter mismatch is resolved again to report it for this element
+                    if (chainKey != null && context.validationResult === validationResult) {
+                        chainCache?.put(
+                            chainKey,
+                            FieldAccessChainCache.Step(field, method, context.parentListBaseType, context.nestIndex),
+                        )
+                    }
                 }
 
-                val method = methodResult.type
+                context.nestIndex++
                 findFieldMethod?.invoke(field?.type ?: method?.type ?: context.parent.type)
                 updateParentContext(element, field, method, context)
             }
@@ -0,0 +1,131 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.util
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Lock-free latency histogram with log-linear buckets in microseconds.
+ *
+ * Values below 16 µs have their own bucket; above that, each power of two is split
+ * into 16 buckets, so a reported percentile is within about 6% of the recorded value.
+ * Bucket counts are striped by thread to keep concurrent recorders off the same cache line.
+ * Values of about 134 seconds and more fall into the last bucket, so the memory per histogram is fixed.
+ */
+class LatencyHistogram {
+    private val stripes = Array(STRIPE_COUNT) { AtomicLongArray(BUCKET_COUNT) }
+    private val maxMicros = AtomicLong()
+
+    fun record(micros: Long) {
+        val value = micros.coerceIn(0L, MAX_TRACKABLE_MICROS)
+        val stripe = stripes[(Thread.currentThread().threadId() and (STRIPE_COUNT - 1).toLong()).toInt()]
+        stripe.incrementAndGet(bucketIndex(value))
+        maxMicros.accumulateAndGet(value, ::maxOf)
+    }
+
+    /**
+     * Get the number of values in each bucket since creation
+     */
+    fun getBucketCounts(): LongArray {
+        val counts = LongArray(BUCKET_COUNT)
+        stripes.forEach { stripe ->
+            for (i in 0 until BUCKET_COUNT) {
+                counts[i] += stripe.get(i)
+            }
+        }
+        return counts
+    }
+
+    /**
+     * Summarize all values recorded since creation
+     */
+    fun getSummary(): Summary? = summarize(getBucketCounts(), maxMicros.get())
+
+    /**
+     * Count and percentiles in microseconds
+     */
+    data class Summary(
+        val count: Long,
+        val p50: Long,
+        val p90: Long,
+        val p95: Long,
+        val p99: Long,
+        val max: Long,
+    )
+
+    companion object {
+        private const val STRIPE_COUNT = 4
+        private const val SUB_BUCKET_BITS = 4
+        private const val SUB_BUCKET_COUNT = 1 shl SUB_BUCKET_BITS
+        private const val MAX_EXPONENT = 26
+        private const val MAX_TRACKABLE_MICROS = (1L shl (MAX_EXPONENT + 1)) - 1
+        private const val BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT
+
+        /**
+         * Summarize bucket counts taken from [getBucketCounts], or the difference of two of them.
+         * Percentiles are capped at [max]; returns null when the buckets are empty.
+         */
+        fun summarize(
+            counts: LongArray,
+            max: Long = MAX_TRACKABLE_MICROS,
+        ): Summary? {
+            val count = counts.sum()
+            if (count == 0L) return null
+            val highest = minOf(bucketUpperBound(counts.indexOfLast { it > 0 }), max)
+            return Summary(
+                count,
+                percentile(counts, count, 0.50, highest),
+                percentile(counts, count, 0.90, highest),
+                percentile(counts, count, 0.95, highest),
+                percentile(counts, count, 0.99, highest),
+                highest,
+            )
+        }
+
+        private fun bucketIndex(value: Long): Int {
+            if (value < SUB_BUCKET_COUNT) return value.toInt()
+            val exponent = 63 - java.lang.Long.numberOfLeadingZeros(value)
+            val subBucket = (value ushr (exponent - SUB_BUCKET_BITS)).toInt() - SUB_BUCKET_COUNT
+            return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket
+        }
+
+        /**
+         * Highest value that falls into the bucket at [index]
+         */
+        private fun bucketUpperBound(index: Int): Long {
+            if (index < SUB_BUCKET_COUNT) return index.toLong()
+            val shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT
+            val subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT
+            return ((SUB_BUCKET_COUNT + subBucket + 1).toLong() shl shift) - 1
+        }
+
+        private fun percentile(
+            counts: LongArray,
+            total: Long,
+            ratio: Double,
+            max: Long,
+        ): Long {
+            val rank = maxOf(1L, Math.ceil(total * ratio).toLong())
+            var seen = 0L
+            for (i in counts.indices) {
+                seen += counts[i]
+                if (seen >= rank) return minOf(bucketUpperBound(i), max)
+            }
+            return max
+        }
+    }
+}
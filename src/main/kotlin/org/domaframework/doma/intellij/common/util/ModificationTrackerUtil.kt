@@ -0,0 +1,33 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.util
+
+import com.intellij.lang.java.JavaLanguage
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.ModificationTracker
+import com.intellij.psi.util.PsiModificationTracker
+
+object ModificationTrackerUtil {
+    private const val KOTLIN_LANGUAGE_ID = "kotlin"
+
+    /**
+     * Tracker of PSI changes in Java and Kotlin sources, where DAO and entity types are declared
+     */
+    fun getJvmSourceTracker(project: Project): ModificationTracker =
+        PsiModificationTracker.getInstance(project).forLanguages { language ->
+            language.isKindOf(JavaLanguage.INSTANCE) || language.id.equals(KOTLIN_LANGUAGE_ID, true)
+        }
+}
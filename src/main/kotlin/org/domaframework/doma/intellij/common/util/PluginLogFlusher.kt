@@ -0,0 +1,66 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.util
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.Service
+import com.intellij.util.concurrency.AppExecutorUtil
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * Owns the periodic flush of [PluginLoggerUtil].
+ *
+ * The scheduled task is cancelled when the service is disposed, on application exit
+ * or when the plugin is unloaded, so it does not keep the plugin class loader alive.
+ */
+@Service(Service.Level.APP)
+class PluginLogFlusher : Disposable {
+    private var future: ScheduledFuture<*>? = null
+
+    @Synchronized
+    fun start() {
+        if (future != null) return
+        future =
+            AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+                { PluginLoggerUtil.flush() },
+                FLUSH_INTERVAL_SECONDS,
+                FLUSH_INTERVAL_SECONDS,
+                TimeUnit.SECONDS,
+            )
+    }
+
+    @Synchronized
+    override fun dispose() {
+        future?.cancel(false)
+        future = null
+        PluginLoggerUtil.flush()
+    }
+
+    companion object {
+        private const val FLUSH_INTERVAL_SECONDS = 60L
+
+        /**
+         * Get the flusher, or null when the application is not running
+         */
+        fun getInstance(): PluginLogFlusher? {
+            val application = ApplicationManager.getApplication() ?: return null
+            if (application.isDisposed) return null
+            return application.getService(PluginLogFlusher::class.java)
+        }
+    }
+}
@@ -18,11 +18,44 @@ package org.domaframework.doma.intellij.common.util
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
 import java.awt.event.InputEvent
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.LongAdder
 
+/**
+ * Records plugin operation timings and cache lookups in memory.
+ *
+ * Callers only update lock-free counters and histograms; a background task
+ * owned by [PluginLogFlusher] writes the aggregated percentiles and cache totals to the log every minute,
+ * so no file I/O happens on completion, resolve or EDT threads.
+ */
 open class PluginLoggerUtil {
     companion object {
         private val logger: Logger = LoggerFactory.getLogger(this::class.java)
 
+        /**
+         * Upper bound of distinct operations kept in memory; timings of further operations are dropped
+         */
+        private const val MAX_OPERATIONS = 256
+
+        private val latencies = ConcurrentHashMap<OperationKey, LatencyHistogram>()
+        private val flushedBucketCounts = ConcurrentHashMap<OperationKey, LongArray>()
+        private val cacheCounters = ConcurrentHashMap<String, CacheCounter>()
+        private val flusherStarted = AtomicBoolean(false)
+
+        private data class OperationKey(
+            val className: String,
+            val inputName: String,
+            val actionName: String,
+        )
+
+        private class CacheCounter {
+            val hits = LongAdder()
+            val misses = LongAdder()
+            val flushedLookups = AtomicLong()
+        }
+
         fun countLoggingByAction(
             className: String,
             actionName: String,
@@ -47,14 +80,112 @@ open class PluginLoggerUtil {
             inputName: String?,
             start: Long,
         ) {
-            val duration = (System.nanoTime() - start) / 1_000_000F
-            logger.info(
-                "\"{}\",\"{}\",\"{}\",{}",
-                className,
-                inputName ?: "null",
-                actionName,
-                duration,
-            )
+            val micros = (System.nanoTime() - start) / 1_000
+            val key = OperationKey(className, inputName ?: "null", actionName)
+            val histogram =
+                latencies[key]
+                    ?: if (latencies.size < MAX_OPERATIONS) latencies.computeIfAbsent(key) { LatencyHistogram() } else null
+            histogram?.record(micros)
+            startFlusher()
+        }
+
+        /**
+         * Count a lookup of [cacheName]; the hit and miss totals are logged by the periodic flush
+         */
+        fun countCacheLookup(
+            cacheName: String,
+            hit: Boolean,
+        ) {
+            val counter = cacheCounters.computeIfAbsent(cacheName) { CacheCounter() }
+            if (hit) counter.hits.increment() else counter.misses.increment()
+            startFlusher()
+        }
+
+        /**
+         * Get the hit and miss counts of [cacheName] since startup
+         */
+        fun getCacheLookupCounts(cacheName: String): Pair<Long, Long> {
+            val counter = cacheCounters[cacheName] ?: return 0L to 0L
+            return counter.hits.sum() to counter.misses.sum()
+        }
+
+        /**
+         * Get the timings of each operation since startup, slowest p99 first
+         */
+        fun getOperationStatistics(): List<OperationStatistics> =
+            latencies
+                .mapNotNull { (key, histogram) ->
+                    histogram.getSummary()?.let {
+                        OperationStatistics(key.className, key.inputName, key.actionName, it)
+                    }
+                }.sortedByDescending { it.summary.p99 }
+
+        /**
+         * Get the hit and miss counts of every cache since startup
+         */
+        fun getCacheStatistics(): List<CacheStatistics> =
+            cacheCounters
+                .map { (cacheName, counter) -> CacheStatistics(cacheName, counter.hits.sum(), counter.misses.sum()) }
+                .sortedBy { it.cacheName }
+
+        /**
+         * Write the timings recorded since the previous flush and the cache totals to the log
+         */
+        fun flush() {
+            latencies.forEach { (key, histogram) ->
+                val counts = histogram.getBucketCounts()
+                val previous = flushedBucketCounts.put(key, counts)
+                val interval = previous?.let { LongArray(counts.size) { i -> counts[i] - previous[i] } } ?: counts
+                val snapshot = LatencyHistogram.summarize(interval) ?: return@forEach
+                logger.info(
+                    "\"{}\",\"{}\",\"{}\",{},{},{},{},{},{}",
+                    key.className,
+                    key.inputName,
+                    key.actionName,
+                    snapshot.count,
+                    toMillis(snapshot.p50),
+                    toMillis(snapshot.p90),
+                    toMillis(snapshot.p95),
+                    toMillis(snapshot.p99),
+                    toMillis(snapshot.max),
+                )
+            }
+            cacheCounters.forEach { (cacheName, counter) ->
+                val hits = counter.hits.sum()
+                val misses = counter.misses.sum()
+                // Skip caches that were not used since the previous flush
+                if (counter.flushedLookups.getAndSet(hits + misses) == hits + misses) return@forEach
+                logger.info("\"{}\",\"cache\",{},{}", cacheName, hits, misses)
+            }
         }
+
+        private fun toMillis(micros: Long): Float = micros / 1_000F
+
+        private fun startFlusher() {
+            if (flusherStarted.get() || !flusherStarted.compareAndSet(false, true)) return
+            val flusher = PluginLogFlusher.getInstance()
+            if (flusher == null) {
+                // Retry on a later record once the application is available
+                flusherStarted.set(false)
+                return
+            }
+            flusher.start()
+        }
+    }
+
+    data class OperationStatistics(
+        val className: String,
+        val inputName: String,
+        val actionName: String,
+        val summary: LatencyHistogram.Summary,
+    )
+
+    data class CacheStatistics(
+        val cacheName: String,
+        val hits: Long,
+        val misses: Long,
+    ) {
+        val hitRatio: Double
+            get() = if (hits + misses == 0L) 0.0 else hits.toDouble() / (hits + misses)
     }
 }
@@ -15,17 +15,12 @@
  */
 package org.domaframework.doma.intellij.common.util
 
-import com.intellij.codeInsight.AnnotationUtil
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiType
+import org.domaframework.doma.intellij.common.psi.DomaTypeClassifier
 import org.domaframework.doma.intellij.common.psi.PsiTypeChecker
 import org.domaframework.doma.intellij.common.util.StringUtil.SINGLE_SPACE
-import org.domaframework.doma.intellij.extension.getJavaClazz
-import org.domaframework.doma.intellij.extension.psi.getClassAnnotation
-import org.domaframework.doma.intellij.extension.psi.isDataType
-import org.domaframework.doma.intellij.extension.psi.isDomain
-import org.domaframework.doma.intellij.extension.psi.isEntity
 import org.domaframework.doma.intellij.formatter.block.SqlBlock
 import org.domaframework.doma.intellij.formatter.block.comma.SqlCommaBlock
 import org.domaframework.doma.intellij.formatter.block.group.column.SqlColumnRawGroupBlock
@@ -76,21 +71,14 @@ object TypeUtil {
         type: PsiType?,
         project: Project,
     ): Boolean {
-        val clazz = type?.let { project.getJavaClazz(type) }
-        return clazz?.isEntity() == true
+        if (type == null) return false
+        return DomaTypeClassifier.getInstance(project).hasAnyRole(type, DomaTypeClassifier.ENTITY)
     }
 
     fun isImmutableEntity(
         project: Project,
         canonicalText: String,
-    ): Boolean {
-        val returnTypeClass = project.getJavaClazz(canonicalText)
-        val entity =
-            returnTypeClass?.getClassAnnotation(DomaClassName.ENTITY.className) ?: return false
-        return entity.let { entity ->
-            AnnotationUtil.getBooleanAttributeValue(entity, "immutable") == true
-        } || returnTypeClass.isRecord
-    }
+    ): Boolean = DomaTypeClassifier.getInstance(project).hasAnyRole(canonicalText, DomaTypeClassifier.IMMUTABLE_ENTITY)
 
     /**
      * Checks if the given type is a domain.
@@ -99,16 +87,16 @@ object TypeUtil {
         type: PsiType?,
         project: Project,
     ): Boolean {
-        val clazz = type?.canonicalText?.let { project.getJavaClazz(it) }
-        return clazz?.isDomain() == true
+        val canonicalText = type?.canonicalText ?: return false
+        return DomaTypeClassifier.getInstance(project).hasAnyRole(canonicalText, DomaTypeClassifier.DOMAIN)
     }
 
     fun isEmbeddable(
         type: PsiType?,
         project: Project,
     ): Boolean {
-        val clazz = type?.canonicalText?.let { project.getJavaClazz(it) }
-        return clazz?.getClassAnnotation(DomaClassName.EMBEDDABLE.className) != null
+        val canonicalText = type?.canonicalText ?: return false
+        return DomaTypeClassifier.getInstance(project).hasAnyRole(canonicalText, DomaTypeClassifier.EMBEDDABLE)
     }
 
     /**
@@ -118,8 +106,8 @@ object TypeUtil {
         type: PsiType?,
         project: Project,
     ): Boolean {
-        val clazz = type?.canonicalText?.let { project.getJavaClazz(it) }
-        return clazz?.isDataType() == true
+        val canonicalText = type?.canonicalText ?: return false
+        return DomaTypeClassifier.getInstance(project).hasAnyRole(canonicalText, DomaTypeClassifier.DATA_TYPE)
     }
 
     /**
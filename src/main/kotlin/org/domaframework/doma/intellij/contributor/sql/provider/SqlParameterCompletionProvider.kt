@@ -216,7 +216,7 @@ class SqlParameterCompletionProvider : CompletionProvider<CompletionParameters>(
 
         if (daoMethod == null) return
 
-        val psiDaoMethod = PsiDaoMethod(project, daoMethod)
+        val psiDaoMethod = PsiDaoMethod.getInstance(daoMethod)
         if (topElementType == null) {
             isBatchAnnotation = psiDaoMethod.daoType.isBatchAnnotation()
             if (isFieldAccessByForItem(
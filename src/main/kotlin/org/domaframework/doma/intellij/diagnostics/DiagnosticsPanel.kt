@@ -0,0 +1,154 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.diagnostics
+
+import com.intellij.icons.AllIcons
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.actionSystem.ActionManager
+import com.intellij.openapi.actionSystem.DefaultActionGroup
+import com.intellij.openapi.fileChooser.FileChooserFactory
+import com.intellij.openapi.fileChooser.FileSaverDescriptor
+import com.intellij.openapi.ide.CopyPasteManager
+import com.intellij.openapi.project.DumbAwareAction
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.ui.SimpleToolWindowPanel
+import com.intellij.ui.JBSplitter
+import com.intellij.ui.ScrollPaneFactory
+import com.intellij.ui.table.JBTable
+import org.domaframework.doma.intellij.bundle.MessageBundle
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import java.awt.datatransfer.StringSelection
+import javax.swing.Timer
+import javax.swing.table.DefaultTableModel
+
+/**
+ * Shows the operation latencies and cache hit ratios recorded by [PluginLoggerUtil].
+ * The tables are refreshed every few seconds while the tool window is visible.
+ */
+class DiagnosticsPanel(
+    private val project: Project,
+) : SimpleToolWindowPanel(true, true),
+    Disposable {
+    private val operationModel =
+        ReadOnlyTableModel(
+            MessageBundle.message("diagnostics.column.class"),
+            MessageBundle.message("diagnostics.column.input"),
+            MessageBundle.message("diagnostics.column.action"),
+            MessageBundle.message("diagnostics.column.count"),
+            "p50 (ms)",
+            "p95 (ms)",
+            "p99 (ms)",
+            "max (ms)",
+        )
+    private val cacheModel =
+        ReadOnlyTableModel(
+            MessageBundle.message("diagnostics.column.cache"),
+            MessageBundle.message("diagnostics.column.hits"),
+            MessageBundle.message("diagnostics.column.misses"),
+            MessageBundle.message("diagnostics.column.hit.ratio"),
+        )
+    private val refreshTimer = Timer(REFRESH_INTERVAL_MILLIS) { refresh() }
+
+    init {
+        val splitter = JBSplitter(true, 0.7f)
+        splitter.firstComponent = ScrollPaneFactory.createScrollPane(JBTable(operationModel).apply { autoCreateRowSorter = true })
+        splitter.secondComponent = ScrollPaneFactory.createScrollPane(JBTable(cacheModel).apply { autoCreateRowSorter = true })
+        setContent(splitter)
+
+        val actions =
+            DefaultActionGroup(
+                DumbAwareAction.create(MessageBundle.message("diagnostics.action.refresh"), AllIcons.Actions.Refresh) {
+                    refresh()
+                },
+                DumbAwareAction.create(MessageBundle.message("diagnostics.action.copy.json"), AllIcons.Actions.Copy) {
+                    CopyPasteManager.getInstance().setContents(StringSelection(DiagnosticsReport.create().toJson()))
+                },
+                DumbAwareAction.create(MessageBundle.message("diagnostics.action.export.json"), AllIcons.ToolbarDecorator.Export) {
+                    exportJson()
+                },
+            )
+        val toolbar = ActionManager.getInstance().createActionToolbar(TOOLBAR_PLACE, actions, true)
+        toolbar.targetComponent = this
+        setToolbar(toolbar.component)
+
+        refresh()
+    }
+
+    /**
+     * Start or stop the periodic refresh, following the visibility of the tool window
+     */
+    fun setAutoRefresh(enabled: Boolean) {
+        if (enabled == refreshTimer.isRunning) return
+        if (enabled) {
+            refresh()
+            refreshTimer.start()
+        } else {
+            refreshTimer.stop()
+        }
+    }
+
+    private fun refresh() {
+        val report = DiagnosticsReport.create()
+        operationModel.rowCount = 0
+        report.operations.forEach {
+            operationModel.addRow(
+                arrayOf(it.className, it.inputName, it.actionName, it.count, it.p50, it.p95, it.p99, it.max),
+            )
+        }
+        cacheModel.rowCount = 0
+        report.caches.forEach {
+            cacheModel.addRow(arrayOf(it.cacheName, it.hits, it.misses, "%.1f%%".format(it.hitRatio * 100)))
+        }
+    }
+
+    private fun exportJson() {
+        val descriptor =
+            FileSaverDescriptor(
+                MessageBundle.message("diagnostics.export.title"),
+                MessageBundle.message("diagnostics.export.description"),
+                "json",
+            )
+        val target =
+            FileChooserFactory
+                .getInstance()
+                .createSaveFileDialog(descriptor, project)
+                .save(EXPORT_FILE_NAME) ?: return
+        target.file.writeText(DiagnosticsReport.create().toJson())
+    }
+
+    override fun dispose() {
+        refreshTimer.stop()
+    }
+
+    private class ReadOnlyTableModel(
+        vararg columnNames: String,
+    ) : DefaultTableModel(columnNames, 0) {
+        override fun isCellEditable(
+            row: Int,
+            column: Int,
+        ): Boolean = false
+
+        // Sort numeric columns by value rather than by text
+        override fun getColumnClass(column: Int): Class<*> =
+            if (rowCount > 0) getValueAt(0, column)?.javaClass ?: Any::class.java else Any::class.java
+    }
+
+    companion object {
+        private const val REFRESH_INTERVAL_MILLIS = 5_000
+        private const val TOOLBAR_PLACE = "DomaToolsDiagnostics"
+        private const val EXPORT_FILE_NAME = "doma-tools-diagnostics.json"
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.diagnostics
+
+import com.google.gson.GsonBuilder
+import com.intellij.openapi.application.ApplicationInfo
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import org.domaframework.doma.intellij.common.util.PluginUtil
+import java.time.OffsetDateTime
+
+/**
+ * Snapshot of the operation timings and cache counters kept by [PluginLoggerUtil],
+ * exported as JSON so it can be attached to performance reports.
+ */
+data class DiagnosticsReport(
+    val pluginVersion: String,
+    val ideVersion: String,
+    val createdAt: String,
+    val operations: List<Operation>,
+    val caches: List<Cache>,
+) {
+    /**
+     * Timings of one operation in milliseconds
+     */
+    data class Operation(
+        val className: String,
+        val inputName: String,
+        val actionName: String,
+        val count: Long,
+        val p50: Float,
+        val p95: Float,
+        val p99: Float,
+        val max: Float,
+    )
+
+    data class Cache(
+        val cacheName: String,
+        val hits: Long,
+        val misses: Long,
+        val hitRatio: Double,
+    )
+
+    fun toJson(): String = GsonBuilder().setPrettyPrinting().create().toJson(this)
+
+    companion object {
+        fun create(): DiagnosticsReport =
+            DiagnosticsReport(
+                PluginUtil.getVersion(),
+                ApplicationInfo.getInstance().fullVersion,
+                OffsetDateTime.now().toString(),
+                PluginLoggerUtil.getOperationStatistics().map {
+                    Operation(
+                        it.className,
+                        it.inputName,
+                        it.actionName,
+                        it.summary.count,
+                        toMillis(it.summary.p50),
+                        toMillis(it.summary.p95),
+                        toMillis(it.summary.p99),
+                        toMillis(it.summary.max),
+                    )
+                },
+                PluginLoggerUtil.getCacheStatistics().map {
+                    Cache(it.cacheName, it.hits, it.misses, it.hitRatio)
+                },
+            )
+
+        private fun toMillis(micros: Long): Float = micros / 1_000F
+    }
+}
@@ -72,7 +72,7 @@ class DocumentDaoParameterGenerator(
             }
             val daoMethod = findDaoMethod(originalElement.containingFile) ?: return
             val param = daoMethod.findParameter(originalElement.text) ?: return
-            isBatchAnnotation = PsiDaoMethod(project, daoMethod).daoType.isBatchAnnotation()
+            isBatchAnnotation = PsiDaoMethod.getInstance(daoMethod).daoType.isBatchAnnotation()
             topParentType = PsiParentClass(param.type)
         }
 
@@ -20,13 +20,12 @@ import com.intellij.openapi.project.Project
 import com.intellij.openapi.roots.ProjectFileIndex
 import com.intellij.openapi.roots.ProjectRootManager
 import com.intellij.openapi.vfs.VirtualFile
-import com.intellij.psi.JavaPsiFacade
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiManager
 import com.intellij.psi.PsiType
-import com.intellij.psi.search.GlobalSearchScope
+import org.domaframework.doma.intellij.common.psi.JavaClassResolveCache
 
 fun Project.getContentRoot(baseFile: VirtualFile): VirtualFile? =
     ProjectRootManager
@@ -47,16 +46,6 @@ fun Project.getJavaClazz(type: PsiType): PsiClass? {
     return getJavaClazz(topClassName)
 }
 
-fun Project.getJavaClazz(fqdn: String): PsiClass? {
-    val scope = GlobalSearchScope.allScope(this)
-    return JavaPsiFacade
-        .getInstance(this)
-        .findClasses(fqdn, scope)
-        .firstOrNull()
-        ?: JavaPsiFacade.getInstance(this).findClass(
-            fqdn,
-            GlobalSearchScope.allScope(this),
-        )
-}
+fun Project.getJavaClazz(fqdn: String): PsiClass? = JavaClassResolveCache.getInstance(this).findClass(fqdn)
 
 fun Project.getSourceRootDir(file: VirtualFile): VirtualFile? = ProjectFileIndex.getInstance(this).getSourceRootForFile(file)
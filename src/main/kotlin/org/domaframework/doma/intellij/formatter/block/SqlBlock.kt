@@ -82,6 +82,63 @@ open class SqlBlock(
         private val SPACING_ONE = Spacing.createSpacing(1, 1, 0, true, 0)
         private val SPACING_ZERO = Spacing.createSpacing(0, 0, 0, true, 0)
         private val SPACING_ONE_NO_KEEP = Spacing.createSpacing(1, 1, 0, false, 0)
+
+        private val directiveCommentSpacingBuilder = buildDirectiveCommentSpacingBuilder()
+
+        private fun buildDirectiveCommentSpacingBuilder(): SqlCustomSpacingBuilder {
+            val builder = SqlCustomSpacingBuilder()
+
+            // Types that need spacing after BLOCK_COMMENT_START
+            val typesNeedingSpaceAfterStart =
+                listOf(
+                    SqlTypes.EL_ID_EXPR,
+                    SqlTypes.EL_PRIMARY_EXPR,
+                    SqlTypes.EL_STRING,
+                    SqlTypes.EL_NUMBER,
+                    SqlTypes.BOOLEAN,
+                    SqlTypes.EL_NULL,
+                    SqlTypes.EL_FIELD_ACCESS_EXPR,
+                    SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR,
+                )
+
+            // Types that need spacing before BLOCK_COMMENT_END
+            val typesNeedingSpaceBeforeEnd =
+                listOf(
+                    SqlTypes.EL_ID_EXPR,
+                    SqlTypes.EL_PRIMARY_EXPR,
+                    SqlTypes.STRING,
+                    SqlTypes.EL_NUMBER,
+                    SqlTypes.EL_NULL,
+                    SqlTypes.BOOLEAN,
+                    SqlTypes.EL_FIELD_ACCESS_EXPR,
+                    SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR,
+                )
+
+            typesNeedingSpaceAfterStart.forEach { type ->
+                builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, type, SPACING_ONE)
+            }
+
+            builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, SqlTypes.HASH, SPACING_ZERO)
+            builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, SqlTypes.CARET, SPACING_ZERO)
+
+            typesNeedingSpaceAfterStart.forEach { type ->
+                builder.withSpacing(SqlTypes.HASH, type, SPACING_ONE)
+            }
+
+            typesNeedingSpaceAfterStart.forEach { type ->
+                builder.withSpacing(SqlTypes.CARET, type, SPACING_ONE)
+            }
+
+            builder.withSpacing(SqlTypes.BLOCK_COMMENT_CONTENT, SqlTypes.BLOCK_COMMENT_END, SPACING_ZERO)
+            builder.withSpacing(SqlTypes.EL_FIELD_ACCESS_EXPR, SqlTypes.OTHER, SPACING_ONE_NO_KEEP)
+            builder.withSpacing(SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR, SqlTypes.OTHER, SPACING_ONE_NO_KEEP)
+
+            typesNeedingSpaceBeforeEnd.forEach { type ->
+                builder.withSpacing(type, SqlTypes.BLOCK_COMMENT_END, SPACING_ONE)
+            }
+
+            return builder
+        }
     }
 
     fun getChildrenTextLen(): Int = childBlocks.sumOf { child -> calculateChildTextLength(child) }
@@ -232,7 +289,14 @@ open class SqlBlock(
         }
     }
 
-    fun getNodeText() = node.text.lowercase()
+    private val nodeText: String by lazy(LazyThreadSafetyMode.NONE) { node.text.lowercase() }
+
+    /**
+     * ID of the node text in [SqlKeywordUtil], or [SqlKeywordUtil.UNKNOWN_KEYWORD_ID] when it is not a keyword.
+     */
+    open val keywordId: Int by lazy(LazyThreadSafetyMode.NONE) { SqlKeywordUtil.getKeywordId(nodeText) }
+
+    fun getNodeText() = nodeText
 
     fun isEnableFormat(): Boolean = enableFormat
 
@@ -259,12 +323,9 @@ open class SqlBlock(
         parent: SqlNewGroupBlock,
         prevWord: SqlBlock?,
     ): Boolean {
-        val currentText = getNodeText()
-        val parentText = parent.getNodeText()
-        val prevText = prevWord?.getNodeText() ?: ""
-
-        return SqlKeywordUtil.isSetLineKeyword(currentText, parentText) ||
-            SqlKeywordUtil.isSetLineKeyword(currentText, prevText)
+        val prevKeywordId = prevWord?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID
+        return SqlKeywordUtil.isSetLineKeyword(keywordId, parent.keywordId) ||
+            SqlKeywordUtil.isSetLineKeyword(keywordId, prevKeywordId)
     }
 
     private fun hasConditionLoopAround(parent: SqlNewGroupBlock): Boolean = isFollowedByConditionLoop() || isPrecededByConditionLoop(parent)
@@ -325,62 +386,10 @@ open class SqlBlock(
     ): Spacing? = null
 
     /**
-     * Creates a spacing builder specifically for directive block comments.
+     * Returns the spacing builder for directive block comments.
+     * The rules do not depend on the block, so one builder is shared by all blocks.
      */
-    protected open fun createBlockDirectiveCommentSpacingBuilder(): SqlCustomSpacingBuilder {
-        val builder = SqlCustomSpacingBuilder()
-
-        // Types that need spacing after BLOCK_COMMENT_START
-        val typesNeedingSpaceAfterStart =
-            listOf(
-                SqlTypes.EL_ID_EXPR,
-                SqlTypes.EL_PRIMARY_EXPR,
-                SqlTypes.EL_STRING,
-                SqlTypes.EL_NUMBER,
-                SqlTypes.BOOLEAN,
-                SqlTypes.EL_NULL,
-                SqlTypes.EL_FIELD_ACCESS_EXPR,
-                SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR,
-            )
-
-        // Types that need spacing before BLOCK_COMMENT_END
-        val typesNeedingSpaceBeforeEnd =
-            listOf(
-                SqlTypes.EL_ID_EXPR,
-                SqlTypes.EL_PRIMARY_EXPR,
-                SqlTypes.STRING,
-                SqlTypes.EL_NUMBER,
-                SqlTypes.EL_NULL,
-                SqlTypes.BOOLEAN,
-                SqlTypes.EL_FIELD_ACCESS_EXPR,
-                SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR,
-            )
-
-        typesNeedingSpaceAfterStart.forEach { type ->
-            builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, type, SPACING_ONE)
-        }
-
-        builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, SqlTypes.HASH, SPACING_ZERO)
-        builder.withSpacing(SqlTypes.BLOCK_COMMENT_START, SqlTypes.CARET, SPACING_ZERO)
-
-        typesNeedingSpaceAfterStart.forEach { type ->
-            builder.withSpacing(SqlTypes.HASH, type, SPACING_ONE)
-        }
-
-        typesNeedingSpaceAfterStart.forEach { type ->
-            builder.withSpacing(SqlTypes.CARET, type, SPACING_ONE)
-        }
-
-        builder.withSpacing(SqlTypes.BLOCK_COMMENT_CONTENT, SqlTypes.BLOCK_COMMENT_END, SPACING_ZERO)
-        builder.withSpacing(SqlTypes.EL_FIELD_ACCESS_EXPR, SqlTypes.OTHER, SPACING_ONE_NO_KEEP)
-        builder.withSpacing(SqlTypes.EL_STATIC_FIELD_ACCESS_EXPR, SqlTypes.OTHER, SPACING_ONE_NO_KEEP)
-
-        typesNeedingSpaceBeforeEnd.forEach { type ->
-            builder.withSpacing(type, SqlTypes.BLOCK_COMMENT_END, SPACING_ONE)
-        }
-
-        return builder
-    }
+    protected open fun createBlockDirectiveCommentSpacingBuilder(): SqlCustomSpacingBuilder = directiveCommentSpacingBuilder
 
     protected fun calculatePrevBlocksLength(
         children: List<SqlBlock>,
@@ -24,6 +24,7 @@ import com.intellij.formatting.Spacing
 import com.intellij.formatting.SpacingBuilder
 import com.intellij.formatting.Wrap
 import com.intellij.lang.ASTNode
+import com.intellij.openapi.util.TextRange
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiWhiteSpace
 import com.intellij.psi.formatter.common.AbstractBlock
@@ -82,6 +83,7 @@ open class SqlFileBlock(
     override val spacingBuilder: SpacingBuilder,
     enableFormat: Boolean,
     private val formatMode: FormattingMode,
+    private val formattingRange: TextRange? = null,
 ) : SqlBlock(
         node,
         wrap,
@@ -101,6 +103,10 @@ open class SqlFileBlock(
         super.setParentGroupBlock(null)
     }
 
+    companion object {
+        private const val STATEMENT_TERMINATOR = ";"
+    }
+
     private val blocks = mutableListOf<AbstractBlock>()
 
     private val blockBuilder = SqlBlockBuilder()
@@ -112,10 +118,18 @@ open class SqlFileBlock(
     public override fun buildChildren(): MutableList<AbstractBlock> {
         if (isLeaf) return mutableListOf()
 
-        var child = node.firstChildNode
+        val statementNodes = findStatementNodes()
+        var child = statementNodes?.first ?: node.firstChildNode
+        val lastChild = statementNodes?.second ?: node.lastChildNode
         var prevNonWhiteSpaceNode: SqlBlock? = null
         blockBuilder.addGroupTopNodeIndexHistory(this)
-        while (child != null) {
+        if (child != node.firstChildNode) {
+            val prefixEnd = skipWhiteSpaceBackward(child.treePrev)
+            if (prefixEnd != null) {
+                blocks.add(SqlUnformattedRegionBlock(node.firstChildNode, prefixEnd, createDefaultFormattingContext()))
+            }
+        }
+        while (child != null && child != lastChild.treeNext) {
             val lastBlock = blocks.lastOrNull()
             val lastGroup = blockBuilder.getLastGroupTopNodeIndexHistory()
             if (child !is PsiWhiteSpace) {
@@ -149,10 +163,75 @@ open class SqlFileBlock(
             child = child.treeNext
         }
         blocks.addAll(pendingCommentBlocks)
+        if (lastChild != node.lastChildNode) {
+            val suffixStart = skipWhiteSpaceForward(lastChild.treeNext)
+            if (suffixStart != null) {
+                val suffixEnd = skipWhiteSpaceBackward(node.lastChildNode) ?: suffixStart
+                blocks.add(SqlUnformattedRegionBlock(suffixStart, suffixEnd, createDefaultFormattingContext()))
+            }
+        }
 
         return blocks
     }
 
+    /**
+     * Finds the first and last child nodes of the `;`-terminated statements that enclose [formattingRange].
+     *
+     * Only a `;` outside parentheses and condition/loop directives is treated as a statement boundary,
+     * so the block state at that point is the same as at the start of the file.
+     * Returns null when the whole file has to be built.
+     */
+    private fun findStatementNodes(): Pair<ASTNode, ASTNode>? {
+        val range = formattingRange ?: return null
+        if (range.contains(node.textRange)) return null
+
+        var statementStart: ASTNode? = node.firstChildNode
+        var depth = 0
+        var child = node.firstChildNode
+        while (child != null) {
+            when (child.elementType) {
+                SqlTypes.LEFT_PAREN -> depth++
+                SqlTypes.RIGHT_PAREN -> depth--
+                SqlTypes.BLOCK_COMMENT -> depth += getDirectiveDepthDelta(child)
+                SqlTypes.OTHER -> {
+                    if (depth == 0 && child.text == STATEMENT_TERMINATOR) {
+                        if (child.startOffset >= range.endOffset) {
+                            val start = statementStart ?: return null
+                            return start to child
+                        }
+                        if (child.textRange.endOffset <= range.startOffset) {
+                            statementStart = child.treeNext
+                        }
+                    }
+                }
+            }
+            child = child.treeNext
+        }
+        if (statementStart == node.firstChildNode) return null
+        return statementStart?.let { it to node.lastChildNode }
+    }
+
+    private fun getDirectiveDepthDelta(comment: ASTNode): Int {
+        val text = comment.chars
+        return when {
+            text.startsWith("/*%if") || text.startsWith("/*%for") -> 1
+            text.startsWith("/*%end") -> -1
+            else -> 0
+        }
+    }
+
+    private fun skipWhiteSpaceBackward(start: ASTNode?): ASTNode? {
+        var current = start
+        while (current is PsiWhiteSpace) current = current.treePrev
+        return current
+    }
+
+    private fun skipWhiteSpaceForward(start: ASTNode?): ASTNode? {
+        var current = start
+        while (current is PsiWhiteSpace) current = current.treeNext
+        return current
+    }
+
     private fun isAfterEndDirective(
         prevBlock: SqlBlock?,
         childBlock: SqlBlock,
@@ -526,6 +605,9 @@ open class SqlFileBlock(
         child2: Block,
     ): Spacing? {
         if (isAdjustIndentOnEnter()) return null
+        if (child1 is SqlUnformattedRegionBlock || child2 is SqlUnformattedRegionBlock) {
+            return Spacing.getReadOnlySpacing()
+        }
         val childBlock1: SqlBlock? = child1 as? SqlBlock
         val childBlock2: SqlBlock = child2 as SqlBlock
 
@@ -24,6 +24,7 @@ import org.domaframework.doma.intellij.formatter.block.group.keyword.with.SqlWit
 import org.domaframework.doma.intellij.formatter.block.group.keyword.with.SqlWithQueryGroupBlock
 import org.domaframework.doma.intellij.formatter.util.IndentType
 import org.domaframework.doma.intellij.formatter.util.SqlBlockFormattingContext
+import org.domaframework.doma.intellij.formatter.util.SqlKeywordUtil
 
 open class SqlKeywordBlock(
     node: ASTNode,
@@ -37,6 +38,8 @@ open class SqlKeywordBlock(
             0,
         )
 
+    override val keywordId: Int = SqlKeywordUtil.getKeywordId(node.text)
+
     override fun setParentGroupBlock(lastGroup: SqlBlock?) {
         super.setParentGroupBlock(lastGroup)
         indent.indentLevel = indentLevel
@@ -0,0 +1,49 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.formatter.block
+
+import com.intellij.formatting.Indent
+import com.intellij.lang.ASTNode
+import com.intellij.openapi.util.TextRange
+import com.intellij.psi.formatter.common.AbstractBlock
+import org.domaframework.doma.intellij.formatter.util.SqlBlockFormattingContext
+
+/**
+ * Opaque leaf covering the statements outside a partial formatting range.
+ *
+ * Spans the nodes from [firstNode] to [lastNode] so the formatter keeps their text as is
+ * without building blocks for them.
+ */
+class SqlUnformattedRegionBlock(
+    firstNode: ASTNode,
+    private val lastNode: ASTNode,
+    context: SqlBlockFormattingContext,
+) : SqlBlock(
+        firstNode,
+        context.wrap,
+        context.alignment,
+        context.spacingBuilder,
+        context.enableFormat,
+        context.formatMode,
+    ) {
+    override fun getTextRange(): TextRange = TextRange(node.startOffset, lastNode.textRange.endOffset)
+
+    override fun getIndent(): Indent? = Indent.getNoneIndent()
+
+    override fun buildChildren(): MutableList<AbstractBlock> = mutableListOf()
+
+    override fun isLeaf(): Boolean = true
+}
@@ -34,6 +34,7 @@ open class SqlKeywordGroupBlock(
     val indentLevel: IndentType = IndentType.TOP,
     context: SqlBlockFormattingContext,
 ) : SqlNewGroupBlock(node, context) {
+    override val keywordId: Int = SqlKeywordUtil.getKeywordId(node.text)
     val topKeywordBlocks: MutableList<SqlBlock> = mutableListOf(this)
     var canAddTopKeyword = true
     private val topKeywordTypes =
@@ -86,7 +87,7 @@ open class SqlKeywordGroupBlock(
 
     override fun setParentPropertyBlock(lastGroup: SqlBlock?) {
         if (lastGroup is SqlSelectQueryGroupBlock &&
-            SqlKeywordUtil.isSelectSecondOptionKeyword(getNodeText())
+            SqlKeywordUtil.isSelectSecondOptionKeyword(keywordId)
         ) {
             lastGroup.secondGroupBlocks.add(this)
         }
@@ -106,7 +107,7 @@ open class SqlKeywordGroupBlock(
         if (preChildBlock == null) return createBlockIndentLen(preChildBlock)
 
         if (preChildBlock.indent.indentLevel == this.indent.indentLevel &&
-            !SqlKeywordUtil.isSetLineKeyword(getNodeText(), preChildBlock.getNodeText())
+            !SqlKeywordUtil.isSetLineKeyword(keywordId, preChildBlock.keywordId)
         ) {
             val diffPretextLen = getNodeText().length.minus(preChildBlock.getNodeText().length)
             return preChildBlock.indent.indentLen.minus(diffPretextLen)
@@ -122,8 +123,8 @@ open class SqlKeywordGroupBlock(
             when (indentLevel) {
                 IndentType.TOP -> {
                     if (SqlKeywordUtil.isSetLineKeyword(
-                            getNodeText(),
-                            preChildBlock?.getNodeText() ?: "",
+                            keywordId,
+                            preChildBlock?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID,
                         )
                     ) {
                         val prevBlockIndent = preChildBlock?.indent?.indentLen ?: 0
@@ -157,8 +158,8 @@ open class SqlKeywordGroupBlock(
 
     override fun isSaveSpace(lastGroup: SqlBlock?): Boolean {
         val prevWord = prevBlocks.findLast { it is SqlKeywordBlock || it is SqlKeywordGroupBlock }
-        return !SqlKeywordUtil.isSetLineKeyword(this.getNodeText(), prevWord?.getNodeText() ?: "") &&
-            !SqlKeywordUtil.isSetLineKeyword(this.getNodeText(), lastGroup?.getNodeText() ?: "") &&
+        return !SqlKeywordUtil.isSetLineKeyword(keywordId, prevWord?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID) &&
+            !SqlKeywordUtil.isSetLineKeyword(keywordId, lastGroup?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID) &&
             lastGroup !is SqlFunctionParamBlock
     }
 }
@@ -52,6 +52,6 @@ open class SqlSecondOptionKeywordGroupBlock(
 
     override fun isSaveSpace(lastGroup: SqlBlock?): Boolean {
         val prevKeyword = lastGroup?.childBlocks?.dropLast(1)?.findLast { it is SqlKeywordBlock }
-        return !SqlKeywordUtil.isSetLineKeyword(getNodeText(), prevKeyword?.getNodeText() ?: "")
+        return !SqlKeywordUtil.isSetLineKeyword(keywordId, prevKeyword?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID)
     }
 }
@@ -71,7 +71,7 @@ open class SqlSecondKeywordBlock(
                         it is SqlKeywordBlock ||
                             it is SqlKeywordGroupBlock
                     }
-                if (SqlKeywordUtil.isSetLineKeyword(getNodeText(), prevKeywordGroupBlock?.getNodeText() ?: "")) {
+                if (SqlKeywordUtil.isSetLineKeyword(keywordId, prevKeywordGroupBlock?.keywordId ?: SqlKeywordUtil.UNKNOWN_KEYWORD_ID)) {
                     return false
                 }
                 return super.isSaveSpace(lastGroup)
@@ -277,8 +277,8 @@ class SqlBlockRelationBuilder(
         val prevKeyword = lastGroupBlock.childBlocks.findLast { it is SqlKeywordBlock }
         if (prevKeyword != null &&
             SqlKeywordUtil.isSetLineKeyword(
-                childBlock.getNodeText(),
-                prevKeyword.getNodeText(),
+                childBlock.keywordId,
+                prevKeyword.keywordId,
             )
         ) {
             updateGroupBlockLastGroupParentAddGroup(prevKeyword, childBlock)
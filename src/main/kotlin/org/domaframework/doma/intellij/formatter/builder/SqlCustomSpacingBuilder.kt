@@ -19,6 +19,7 @@ import com.intellij.formatting.ASTBlock
 import com.intellij.formatting.Block
 import com.intellij.formatting.Spacing
 import com.intellij.psi.tree.IElementType
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap
 import org.domaframework.doma.intellij.common.util.StringUtil
 import org.domaframework.doma.intellij.formatter.block.SqlBlock
 import org.domaframework.doma.intellij.formatter.block.SqlRightPatternBlock
@@ -33,16 +34,34 @@ class SqlCustomSpacingBuilder {
     companion object {
         val normalSpacing: Spacing = Spacing.createSpacing(1, 1, 0, false, 0, 0)
         val nonSpacing: Spacing = Spacing.createSpacing(0, 0, 0, false, 0, 0)
+
+        // Index used for a missing element type; IElementType indexes are never negative
+        private const val NO_TYPE_INDEX = 0xFFFFL
+
+        /**
+         * Packs the indexes of both element types into one key so that lookups do not allocate.
+         */
+        private fun spacingKey(
+            left: IElementType?,
+            right: IElementType?,
+        ): Long = (typeIndex(left) shl 16) or typeIndex(right)
+
+        private fun typeIndex(type: IElementType?): Long = type?.index?.toLong() ?: NO_TYPE_INDEX
     }
 
-    private val spacingRules: MutableMap<Pair<IElementType?, IElementType?>?, Spacing?> = HashMap()
+    private val spacingRules = Long2ObjectOpenHashMap<Spacing>()
 
     fun withSpacing(
         left: IElementType?,
         right: IElementType?,
         spacing: Spacing?,
     ): SqlCustomSpacingBuilder {
-        spacingRules.put(Pair(left, right), spacing)
+        val key = spacingKey(left, right)
+        if (spacing == null) {
+            spacingRules.remove(key)
+        } else {
+            spacingRules.put(key, spacing)
+        }
         return this
     }
 
@@ -50,17 +69,18 @@ class SqlCustomSpacingBuilder {
         child1: Block?,
         child2: Block?,
     ): Spacing? {
+        if (spacingRules.isEmpty()) return null
         if (child1 is ASTBlock && child2 is ASTBlock) {
             val type1: IElementType? = child1.node?.elementType
             val type2: IElementType? = child2.node?.elementType
-            val spacing: Spacing? = spacingRules[Pair(type1, type2)]
+            val spacing: Spacing? = spacingRules.get(spacingKey(type1, type2))
             if (spacing != null) {
                 return spacing
             }
         }
         if (child1 == null && child2 is ASTBlock) {
             val type2: IElementType? = child2.node?.elementType
-            val spacing: Spacing? = spacingRules[Pair(null, type2)]
+            val spacing: Spacing? = spacingRules.get(spacingKey(null, type2))
             if (spacing != null) {
                 return spacing
             }
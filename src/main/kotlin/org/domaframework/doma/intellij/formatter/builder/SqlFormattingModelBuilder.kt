@@ -36,6 +36,9 @@ import org.domaframework.doma.intellij.setting.state.DomaToolsFormatEnableSettin
  * Automatic indentation on Line breaks, however, is executed only when the corresponding configuration flag is set.
  */
 class SqlFormattingModelBuilder : FormattingModelBuilder {
+    // The custom rules are fixed, so the lookup table is built once and shared by every formatting run
+    private val customSpacingBuilder by lazy { createCustomSpacingBuilder() }
+
     override fun createModel(formattingContext: FormattingContext): FormattingModel {
         val codeStyleSettings = formattingContext.codeStyleSettings
 
@@ -50,7 +53,6 @@ class SqlFormattingModelBuilder : FormattingModelBuilder {
         val isEnableFormat = setting.state.isEnableSqlFormat
         val formatMode = formattingContext.formattingMode
         val spacingBuilder = createSpaceBuilder(settings)
-        val customSpacingBuilder = createCustomSpacingBuilder()
 
         val block =
             SqlFileBlock(
@@ -61,6 +63,7 @@ class SqlFormattingModelBuilder : FormattingModelBuilder {
                 spacingBuilder,
                 isEnableFormat,
                 formatMode,
+                formattingContext.formattingRange,
             )
         return FormattingModelProvider
             .createFormattingModelForPsiFile(
@@ -0,0 +1,172 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.formatter.indent
+
+import com.intellij.lang.Language
+import com.intellij.openapi.editor.Document
+import com.intellij.openapi.editor.Editor
+import com.intellij.openapi.editor.ex.EditorEx
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.TokenType
+import com.intellij.psi.impl.source.codeStyle.lineIndent.LineIndentProvider
+import com.intellij.psi.tree.IElementType
+import org.domaframework.doma.intellij.common.util.StringUtil.LINE_SEPARATE
+import org.domaframework.doma.intellij.psi.SqlFile
+import org.domaframework.doma.intellij.psi.SqlTypes
+import org.domaframework.doma.intellij.setting.SqlLanguage
+import org.domaframework.doma.intellij.setting.state.DomaToolsFormatEnableSettings
+
+/**
+ * Computes the indent of a new line from the editor's lexer tokens, without building formatter blocks.
+ *
+ * The tokens before the caret are scanned backward until one of the following is found:
+ * - an unclosed `(`: align with the first token after it
+ * - an unclosed `%if` / `%for`: align with the directive
+ * - the first token of a previous line: align with it, or with the text after it for a keyword
+ * - a `;` ending the previous statement: no indent
+ *
+ * Returns null, falling back to the formatting model, when no anchor is found within [MAX_SCANNED_TOKENS]
+ * or when the editor is not a SQL file, such as a DAO with an injected `@Sql` template.
+ */
+class SqlLineIndentProvider : LineIndentProvider {
+    companion object {
+        private const val MAX_SCANNED_TOKENS = 2000
+        private const val STATEMENT_TERMINATOR = ";"
+
+        private val COMMENT_TOKENS =
+            setOf(
+                SqlTypes.LINE_COMMENT,
+                SqlTypes.BLOCK_COMMENT_CONTENT,
+                SqlTypes.BLOCK_COMMENT_END,
+            )
+    }
+
+    override fun getLineIndent(
+        project: Project,
+        editor: Editor,
+        language: Language?,
+        offset: Int,
+    ): String? {
+        if (!DomaToolsFormatEnableSettings.getInstance().state.isEnableSqlFormat) return null
+        // Injected @Sql templates resolve to SqlLanguage, but the editor highlighter is the host file's
+        if (PsiDocumentManager.getInstance(project).getPsiFile(editor.document) !is SqlFile) return null
+        if (offset <= 0) return ""
+        val highlighter = (editor as? EditorEx)?.highlighter ?: return null
+        val document = editor.document
+        val text = document.charsSequence
+        val iterator = highlighter.createIterator(offset - 1)
+
+        var parenDepth = 0
+        var directiveDepth = 0
+        // First token of the line being scanned, if it can be used as an anchor
+        var lineHead: Int? = null
+        var lineHeadType: IElementType? = null
+        var nextTokenType: IElementType? = null
+        var nextTokenStart = offset
+        var scanned = 0
+        while (!iterator.atEnd() && scanned++ < MAX_SCANNED_TOKENS) {
+            val type = iterator.tokenType
+            val start = iterator.start
+            if (type == TokenType.WHITE_SPACE) {
+                val end = minOf(iterator.end, offset)
+                if (start < end && text.subSequence(start, end).contains(LINE_SEPARATE)) {
+                    lineHead?.let { return getHeadIndent(document, it, lineHeadType) }
+                }
+                iterator.retreat()
+                continue
+            }
+
+            when (type) {
+                SqlTypes.RIGHT_PAREN -> parenDepth++
+                SqlTypes.LEFT_PAREN -> {
+                    if (parenDepth == 0 && directiveDepth == 0) {
+                        return getParenContentIndent(document, start, nextTokenStart)
+                    }
+                    if (parenDepth > 0) parenDepth--
+                }
+                SqlTypes.EL_END -> directiveDepth++
+                SqlTypes.EL_IF, SqlTypes.EL_FOR -> {
+                    if (directiveDepth == 0) {
+                        iterator.retreat()
+                        val directiveStart = if (iterator.atEnd()) start else iterator.start
+                        return createIndent(getColumn(document, directiveStart))
+                    }
+                    directiveDepth--
+                }
+                SqlTypes.OTHER -> {
+                    val isStatementEnd = STATEMENT_TERMINATOR.contentEquals(text.subSequence(start, iterator.end))
+                    if (parenDepth == 0 && directiveDepth == 0 && isStatementEnd) {
+                        return lineHead?.let { getHeadIndent(document, it, lineHeadType) } ?: ""
+                    }
+                }
+            }
+
+            val isAnchor =
+                parenDepth == 0 &&
+                    directiveDepth == 0 &&
+                    type !in COMMENT_TOKENS &&
+                    !(type == SqlTypes.BLOCK_COMMENT_START && nextTokenType in COMMENT_TOKENS)
+            lineHead = if (isAnchor) start else null
+            lineHeadType = if (isAnchor) type else null
+            nextTokenType = type
+            nextTokenStart = start
+            iterator.retreat()
+        }
+        if (iterator.atEnd()) {
+            return lineHead?.let { getHeadIndent(document, it, lineHeadType) } ?: ""
+        }
+        return null
+    }
+
+    override fun isSuitableFor(language: Language?): Boolean = language is SqlLanguage
+
+    /**
+     * A keyword at the head of a line opens a clause, so the new line is aligned with the text after it.
+     */
+    private fun getHeadIndent(
+        document: Document,
+        headOffset: Int,
+        headType: IElementType?,
+    ): String {
+        val column = getColumn(document, headOffset)
+        if (headType != SqlTypes.KEYWORD) return createIndent(column)
+
+        val text = document.charsSequence
+        var keywordEnd = headOffset
+        while (keywordEnd < text.length && !text[keywordEnd].isWhitespace()) keywordEnd++
+        return createIndent(column + (keywordEnd - headOffset) + 1)
+    }
+
+    private fun getParenContentIndent(
+        document: Document,
+        parenOffset: Int,
+        nextTokenStart: Int,
+    ): String {
+        val parenLine = document.getLineNumber(parenOffset)
+        if (nextTokenStart < document.textLength && document.getLineNumber(nextTokenStart) == parenLine) {
+            return createIndent(getColumn(document, nextTokenStart))
+        }
+        return createIndent(getColumn(document, parenOffset) + 1)
+    }
+
+    private fun getColumn(
+        document: Document,
+        offset: Int,
+    ): Int = offset - document.getLineStartOffset(document.getLineNumber(offset))
+
+    private fun createIndent(column: Int): String = " ".repeat(column)
+}
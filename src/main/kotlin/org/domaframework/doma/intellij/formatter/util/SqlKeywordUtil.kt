@@ -15,6 +15,9 @@
  */
 package org.domaframework.doma.intellij.formatter.util
 
+import com.intellij.util.containers.CollectionFactory
+import java.util.BitSet
+
 enum class IndentType(
     private val level: Int,
     private val group: Boolean = false,
@@ -104,11 +107,17 @@ class SqlKeywordUtil {
                 "references",
             )
 
-        fun isTopKeyword(keyword: String): Boolean = TOP_KEYWORDS.contains(keyword.lowercase())
+        fun isTopKeyword(keyword: String): Boolean = isTopKeyword(getKeywordId(keyword))
+
+        fun isTopKeyword(keywordId: Int): Boolean = TOP_KEYWORD_IDS.hasId(keywordId)
+
+        fun isSecondKeyword(keyword: String): Boolean = isSecondKeyword(getKeywordId(keyword))
 
-        fun isSecondKeyword(keyword: String): Boolean = SECOND_KEYWORDS.contains(keyword.lowercase())
+        fun isSecondKeyword(keywordId: Int): Boolean = SECOND_KEYWORD_IDS.hasId(keywordId)
 
-        fun isTableModifyKeyword(keyword: String): Boolean = TABLE_MODIFY_KEYWORDS.contains(keyword.lowercase())
+        fun isTableModifyKeyword(keyword: String): Boolean = isTableModifyKeyword(getKeywordId(keyword))
+
+        fun isTableModifyKeyword(keywordId: Int): Boolean = TABLE_MODIFY_KEYWORD_IDS.hasId(keywordId)
 
         private val SECOND_OPTION_KEYWORDS: Set<String> =
             setOf("and", "or", "on")
@@ -116,9 +125,13 @@ class SqlKeywordUtil {
         private val CONDITION_KEYWORDS: Set<String> =
             setOf("and", "or")
 
-        fun isConditionKeyword(keyword: String): Boolean = CONDITION_KEYWORDS.contains(keyword.lowercase())
+        fun isConditionKeyword(keyword: String): Boolean = isConditionKeyword(getKeywordId(keyword))
+
+        fun isConditionKeyword(keywordId: Int): Boolean = CONDITION_KEYWORD_IDS.hasId(keywordId)
 
-        fun isSecondOptionKeyword(keyword: String): Boolean = SECOND_OPTION_KEYWORDS.contains(keyword.lowercase())
+        fun isSecondOptionKeyword(keyword: String): Boolean = isSecondOptionKeyword(getKeywordId(keyword))
+
+        fun isSecondOptionKeyword(keywordId: Int): Boolean = SECOND_OPTION_KEYWORD_IDS.hasId(keywordId)
 
         private val BEFORE_TABLE_KEYWORDS: Set<String> =
             setOf("from", "update", "drop", "table")
@@ -126,24 +139,34 @@ class SqlKeywordUtil {
         private val SELECT_SECOND_OPTION_KEYWORDS: Set<String> =
             setOf("from", "where", "group", "having", "order", "rows")
 
-        fun isSelectSecondOptionKeyword(keyword: String): Boolean = SELECT_SECOND_OPTION_KEYWORDS.contains(keyword.lowercase())
+        fun isSelectSecondOptionKeyword(keyword: String): Boolean = isSelectSecondOptionKeyword(getKeywordId(keyword))
+
+        fun isSelectSecondOptionKeyword(keywordId: Int): Boolean = SELECT_SECOND_OPTION_KEYWORD_IDS.hasId(keywordId)
 
-        fun isBeforeTableKeyword(keyword: String): Boolean = BEFORE_TABLE_KEYWORDS.contains(keyword.lowercase())
+        fun isBeforeTableKeyword(keyword: String): Boolean = isBeforeTableKeyword(getKeywordId(keyword))
+
+        fun isBeforeTableKeyword(keywordId: Int): Boolean = BEFORE_TABLE_KEYWORD_IDS.hasId(keywordId)
 
         private val JOIN_KEYWORDS: Set<String> =
             setOf("left", "right", "full", "cross", "natural")
 
-        fun isJoinKeyword(keyword: String): Boolean = JOIN_KEYWORDS.contains(keyword.lowercase())
+        fun isJoinKeyword(keyword: String): Boolean = isJoinKeyword(getKeywordId(keyword))
+
+        fun isJoinKeyword(keywordId: Int): Boolean = JOIN_KEYWORD_IDS.hasId(keywordId)
 
         private val JOIN_ATTACHED_KEYWORDS: Set<String> =
             setOf("outer", "inner", "join")
 
-        fun isJoinAttachedKeyword(keyword: String): Boolean = JOIN_ATTACHED_KEYWORDS.contains(keyword.lowercase())
+        fun isJoinAttachedKeyword(keyword: String): Boolean = isJoinAttachedKeyword(getKeywordId(keyword))
+
+        fun isJoinAttachedKeyword(keywordId: Int): Boolean = JOIN_ATTACHED_KEYWORD_IDS.hasId(keywordId)
 
         private val ATTACHED_KEYWORDS: Set<String> =
             setOf("distinct", "into", "table", "index", "database", "view")
 
-        fun isAttachedKeyword(keyword: String): Boolean = ATTACHED_KEYWORDS.contains(keyword.lowercase())
+        fun isAttachedKeyword(keyword: String): Boolean = isAttachedKeyword(getKeywordId(keyword))
+
+        fun isAttachedKeyword(keywordId: Int): Boolean = ATTACHED_KEYWORD_IDS.hasId(keywordId)
 
         private val THIRD_KEYWORDS =
             setOf(
@@ -153,7 +176,9 @@ class SqlKeywordUtil {
                 "column",
             )
 
-        fun isThirdKeyword(keyword: String): Boolean = THIRD_KEYWORDS.contains(keyword.lowercase())
+        fun isThirdKeyword(keyword: String): Boolean = isThirdKeyword(getKeywordId(keyword))
+
+        fun isThirdKeyword(keywordId: Int): Boolean = THIRD_KEYWORD_IDS.hasId(keywordId)
 
         private val COLUMN_TYPE_KEYWORDS =
             setOf(
@@ -184,7 +209,9 @@ class SqlKeywordUtil {
                 "set",
             )
 
-        fun isColumnTypeKeyword(keyword: String): Boolean = COLUMN_TYPE_KEYWORDS.contains(keyword.lowercase())
+        fun isColumnTypeKeyword(keyword: String): Boolean = isColumnTypeKeyword(getKeywordId(keyword))
+
+        fun isColumnTypeKeyword(keywordId: Int): Boolean = COLUMN_TYPE_KEYWORD_IDS.hasId(keywordId)
 
         private val LITERAL_KEYWORDS =
             setOf(
@@ -194,7 +221,9 @@ class SqlKeywordUtil {
                 "current_date",
             )
 
-        fun isLiteralKeyword(keyword: String): Boolean = LITERAL_KEYWORDS.contains(keyword.lowercase())
+        fun isLiteralKeyword(keyword: String): Boolean = isLiteralKeyword(getKeywordId(keyword))
+
+        fun isLiteralKeyword(keywordId: Int): Boolean = LITERAL_KEYWORD_IDS.hasId(keywordId)
 
         private val ATTRIBUTE_KEYWORD =
             setOf(
@@ -205,7 +234,9 @@ class SqlKeywordUtil {
                 "foreign",
             )
 
-        fun isAttributeKeyword(keyword: String): Boolean = ATTRIBUTE_KEYWORD.contains(keyword.lowercase())
+        fun isAttributeKeyword(keyword: String): Boolean = isAttributeKeyword(getKeywordId(keyword))
+
+        fun isAttributeKeyword(keywordId: Int): Boolean = ATTRIBUTE_KEYWORD_IDS.hasId(keywordId)
 
         private val INLINE_PARENT_SQL_KEYWORDS =
             setOf(
@@ -213,7 +244,9 @@ class SqlKeywordUtil {
                 "case",
             )
 
-        fun isInlineParentSqlKeyword(keyword: String): Boolean = INLINE_PARENT_SQL_KEYWORDS.contains(keyword.lowercase())
+        fun isInlineParentSqlKeyword(keyword: String): Boolean = isInlineParentSqlKeyword(getKeywordId(keyword))
+
+        fun isInlineParentSqlKeyword(keywordId: Int): Boolean = INLINE_PARENT_SQL_KEYWORD_IDS.hasId(keywordId)
 
         private val INLINE_SQL_KEYWORDS =
             setOf(
@@ -222,7 +255,9 @@ class SqlKeywordUtil {
                 "end",
             )
 
-        fun isInlineSqlKeyword(keyword: String): Boolean = INLINE_SQL_KEYWORDS.contains(keyword.lowercase())
+        fun isInlineSqlKeyword(keyword: String): Boolean = isInlineSqlKeyword(getKeywordId(keyword))
+
+        fun isInlineSqlKeyword(keywordId: Int): Boolean = INLINE_SQL_KEYWORD_IDS.hasId(keywordId)
 
         private val OPTION_SQL_KEYWORDS =
             setOf(
@@ -250,7 +285,9 @@ class SqlKeywordUtil {
                 "lateral",
             )
 
-        fun isOptionSqlKeyword(keyword: String): Boolean = OPTION_SQL_KEYWORDS.contains(keyword.lowercase())
+        fun isOptionSqlKeyword(keyword: String): Boolean = isOptionSqlKeyword(getKeywordId(keyword))
+
+        fun isOptionSqlKeyword(keywordId: Int): Boolean = OPTION_SQL_KEYWORD_IDS.hasId(keywordId)
 
         private val CONFLICT_ATTACHED_KEYWORDS =
             setOf(
@@ -258,7 +295,9 @@ class SqlKeywordUtil {
                 "constraint",
             )
 
-        fun isConflictAttachedKeyword(keyword: String): Boolean = CONFLICT_ATTACHED_KEYWORDS.contains(keyword.lowercase())
+        fun isConflictAttachedKeyword(keyword: String): Boolean = isConflictAttachedKeyword(getKeywordId(keyword))
+
+        fun isConflictAttachedKeyword(keywordId: Int): Boolean = CONFLICT_ATTACHED_KEYWORD_IDS.hasId(keywordId)
 
         private val WITH_OPTION_KEYWORDS =
             setOf(
@@ -266,7 +305,9 @@ class SqlKeywordUtil {
                 "cycle",
             )
 
-        fun isWithOptionKeyword(keyword: String): Boolean = WITH_OPTION_KEYWORDS.contains(keyword.lowercase())
+        fun isWithOptionKeyword(keyword: String): Boolean = isWithOptionKeyword(getKeywordId(keyword))
+
+        fun isWithOptionKeyword(keywordId: Int): Boolean = WITH_OPTION_KEYWORD_IDS.hasId(keywordId)
 
         private val EXISTS_KEYWORDS =
             setOf(
@@ -275,12 +316,16 @@ class SqlKeywordUtil {
                 "not",
             )
 
-        fun isExistsKeyword(keyword: String): Boolean = EXISTS_KEYWORDS.contains(keyword.lowercase())
+        fun isExistsKeyword(keyword: String): Boolean = isExistsKeyword(getKeywordId(keyword))
+
+        fun isExistsKeyword(keywordId: Int): Boolean = EXISTS_KEYWORD_IDS.hasId(keywordId)
 
         private val HAS_FILTER_PARAM =
             setOf("group", "in", "over", "into", "values", "filter", "references", "using")
 
-        fun hasFilterParam(keyword: String): Boolean = HAS_FILTER_PARAM.contains(keyword.lowercase())
+        fun hasFilterParam(keyword: String): Boolean = hasFilterParam(getKeywordId(keyword))
+
+        fun hasFilterParam(keywordId: Int): Boolean = HAS_FILTER_PARAM_IDS.hasId(keywordId)
 
         private val SET_LINE_KEYWORDS =
             mapOf(
@@ -312,44 +357,125 @@ class SqlKeywordUtil {
         fun isSetLineKeyword(
             keyword: String,
             prevKeyword: String,
-        ): Boolean = SET_LINE_KEYWORDS[keyword.lowercase()]?.contains(prevKeyword.lowercase()) == true
+        ): Boolean = isSetLineKeyword(getKeywordId(keyword), getKeywordId(prevKeyword))
+
+        fun isSetLineKeyword(
+            keywordId: Int,
+            prevKeywordId: Int,
+        ): Boolean = SET_LINE_KEYWORD_IDS.getOrNull(keywordId)?.hasId(prevKeywordId) == true
 
         fun isComma(keyword: String): Boolean = keyword == ","
 
-        fun getIndentType(keywordText: String): IndentType {
-            val keyword = keywordText.lowercase()
-            return when {
-                isTopKeyword(keyword) -> IndentType.TOP
+        fun getIndentType(keywordText: String): IndentType =
+            if (isComma(keywordText)) {
+                IndentType.COMMA
+            } else {
+                getIndentType(getKeywordId(keywordText))
+            }
 
-                isSecondKeyword(keyword) || isSelectSecondOptionKeyword(keyword) || isWithOptionKeyword(keyword) ||
-                    isTableModifyKeyword(keyword) -> IndentType.SECOND
+        fun getIndentType(keywordId: Int): IndentType =
+            when {
+                isTopKeyword(keywordId) -> IndentType.TOP
 
-                isSecondOptionKeyword(keyword) || isConditionKeyword(keyword) -> IndentType.SECOND_OPTION
+                isSecondKeyword(keywordId) || isSelectSecondOptionKeyword(keywordId) || isWithOptionKeyword(keywordId) ||
+                    isTableModifyKeyword(keywordId) -> IndentType.SECOND
 
-                isJoinKeyword(keyword) || isJoinAttachedKeyword(keyword) -> IndentType.JOIN
+                isSecondOptionKeyword(keywordId) || isConditionKeyword(keywordId) -> IndentType.SECOND_OPTION
 
-                isAttachedKeyword(keyword) -> IndentType.ATTACHED
+                isJoinKeyword(keywordId) || isJoinAttachedKeyword(keywordId) -> IndentType.JOIN
 
-                isThirdKeyword(keyword) -> IndentType.TIRD
+                isAttachedKeyword(keywordId) -> IndentType.ATTACHED
 
-                isInlineParentSqlKeyword(keyword) -> IndentType.INLINE
+                isThirdKeyword(keywordId) -> IndentType.TIRD
 
-                isInlineSqlKeyword(keyword) -> IndentType.INLINE_SECOND
+                isInlineParentSqlKeyword(keywordId) -> IndentType.INLINE
 
-                isAttributeKeyword(keyword) -> IndentType.ATTRIBUTE
+                isInlineSqlKeyword(keywordId) -> IndentType.INLINE_SECOND
 
-                isLiteralKeyword(keyword) -> IndentType.LITERAL
+                isAttributeKeyword(keywordId) -> IndentType.ATTRIBUTE
 
-                isOptionSqlKeyword(keyword) -> IndentType.OPTIONS
+                isLiteralKeyword(keywordId) -> IndentType.LITERAL
 
-                isColumnTypeKeyword(keyword) -> IndentType.COLUMN
+                isOptionSqlKeyword(keywordId) -> IndentType.OPTIONS
 
-                isConflictAttachedKeyword(keyword) -> IndentType.ATTACHED
+                isColumnTypeKeyword(keywordId) -> IndentType.COLUMN
 
-                isComma(keyword) -> IndentType.COMMA
+                isConflictAttachedKeyword(keywordId) -> IndentType.ATTACHED
 
                 else -> IndentType.NONE
             }
-        }
+
+        const val UNKNOWN_KEYWORD_ID = -1
+
+        // Every keyword in the sets above gets a dense ID so that classification is a bit lookup
+        private val KEYWORD_IDS: Map<String, Int> =
+            CollectionFactory.createCaseInsensitiveStringMap<Int>().apply {
+                val keywordSets =
+                    listOf(
+                        TOP_KEYWORDS,
+                        SECOND_KEYWORDS,
+                        TABLE_MODIFY_KEYWORDS,
+                        CONDITION_KEYWORDS,
+                        SECOND_OPTION_KEYWORDS,
+                        SELECT_SECOND_OPTION_KEYWORDS,
+                        BEFORE_TABLE_KEYWORDS,
+                        JOIN_KEYWORDS,
+                        JOIN_ATTACHED_KEYWORDS,
+                        ATTACHED_KEYWORDS,
+                        THIRD_KEYWORDS,
+                        COLUMN_TYPE_KEYWORDS,
+                        LITERAL_KEYWORDS,
+                        ATTRIBUTE_KEYWORD,
+                        INLINE_PARENT_SQL_KEYWORDS,
+                        INLINE_SQL_KEYWORDS,
+                        OPTION_SQL_KEYWORDS,
+                        CONFLICT_ATTACHED_KEYWORDS,
+                        WITH_OPTION_KEYWORDS,
+                        EXISTS_KEYWORDS,
+                        HAS_FILTER_PARAM,
+                    ) + SET_LINE_KEYWORDS.values + listOf(SET_LINE_KEYWORDS.keys)
+                keywordSets.flatten().forEach { keyword -> putIfAbsent(keyword, size) }
+            }
+
+        private val TOP_KEYWORD_IDS = toIdSet(TOP_KEYWORDS)
+        private val SECOND_KEYWORD_IDS = toIdSet(SECOND_KEYWORDS)
+        private val TABLE_MODIFY_KEYWORD_IDS = toIdSet(TABLE_MODIFY_KEYWORDS)
+        private val CONDITION_KEYWORD_IDS = toIdSet(CONDITION_KEYWORDS)
+        private val SECOND_OPTION_KEYWORD_IDS = toIdSet(SECOND_OPTION_KEYWORDS)
+        private val SELECT_SECOND_OPTION_KEYWORD_IDS = toIdSet(SELECT_SECOND_OPTION_KEYWORDS)
+        private val BEFORE_TABLE_KEYWORD_IDS = toIdSet(BEFORE_TABLE_KEYWORDS)
+        private val JOIN_KEYWORD_IDS = toIdSet(JOIN_KEYWORDS)
+        private val JOIN_ATTACHED_KEYWORD_IDS = toIdSet(JOIN_ATTACHED_KEYWORDS)
+        private val ATTACHED_KEYWORD_IDS = toIdSet(ATTACHED_KEYWORDS)
+        private val THIRD_KEYWORD_IDS = toIdSet(THIRD_KEYWORDS)
+        private val COLUMN_TYPE_KEYWORD_IDS = toIdSet(COLUMN_TYPE_KEYWORDS)
+        private val LITERAL_KEYWORD_IDS = toIdSet(LITERAL_KEYWORDS)
+        private val ATTRIBUTE_KEYWORD_IDS = toIdSet(ATTRIBUTE_KEYWORD)
+        private val INLINE_PARENT_SQL_KEYWORD_IDS = toIdSet(INLINE_PARENT_SQL_KEYWORDS)
+        private val INLINE_SQL_KEYWORD_IDS = toIdSet(INLINE_SQL_KEYWORDS)
+        private val OPTION_SQL_KEYWORD_IDS = toIdSet(OPTION_SQL_KEYWORDS)
+        private val CONFLICT_ATTACHED_KEYWORD_IDS = toIdSet(CONFLICT_ATTACHED_KEYWORDS)
+        private val WITH_OPTION_KEYWORD_IDS = toIdSet(WITH_OPTION_KEYWORDS)
+        private val EXISTS_KEYWORD_IDS = toIdSet(EXISTS_KEYWORDS)
+        private val HAS_FILTER_PARAM_IDS = toIdSet(HAS_FILTER_PARAM)
+
+        private val SET_LINE_KEYWORD_IDS: Array<BitSet?> =
+            arrayOfNulls<BitSet>(KEYWORD_IDS.size).apply {
+                SET_LINE_KEYWORDS.forEach { (keyword, prevKeywords) ->
+                    this[getKeywordId(keyword)] = toIdSet(prevKeywords)
+                }
+            }
+
+        /**
+         * Returns the ID of [keyword] regardless of case, or [UNKNOWN_KEYWORD_ID] when it is not a formatter keyword.
+         */
+        fun getKeywordId(keyword: String): Int = KEYWORD_IDS[keyword] ?: UNKNOWN_KEYWORD_ID
+
+        private fun toIdSet(keywords: Set<String>): BitSet =
+            BitSet(KEYWORD_IDS.size).apply {
+                keywords.forEach { set(getKeywordId(it)) }
+            }
+
+        private fun BitSet.hasId(keywordId: Int): Boolean = keywordId >= 0 && get(keywordId)
     }
 }
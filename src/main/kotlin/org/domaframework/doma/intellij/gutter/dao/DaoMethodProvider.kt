@@ -41,6 +41,25 @@ import javax.swing.Icon
 class DaoMethodProvider : RelatedItemLineMarkerProvider() {
     override fun getIcon(): Icon = SqlIcon.FILE
 
+    /**
+     * Process the methods of each DAO file together.
+     * The @Dao check runs once per file, and the methods share the SQL directory listing
+     * cached by [org.domaframework.doma.intellij.common.dao.getSqlTemplateFiles].
+     */
+    override fun collectNavigationMarkers(
+        elements: List<PsiElement>,
+        result: MutableCollection<in RelatedItemLineMarkerInfo<*>>,
+        forNavigation: Boolean,
+    ) {
+        elements
+            .filterIsInstance<PsiMethod>()
+            .groupBy { it.containingFile }
+            .forEach { (file, methods) ->
+                if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return@forEach
+                methods.forEach { collectNavigationMarkers(it, result) }
+            }
+    }
+
     override fun collectNavigationMarkers(
         e: PsiElement,
         result: MutableCollection<in RelatedItemLineMarkerInfo<*>>,
@@ -51,7 +70,7 @@ class DaoMethodProvider : RelatedItemLineMarkerProvider() {
             val owner = e as PsiNameIdentifierOwner
             val method = e as? PsiMethod ?: return
             val identifier = owner.nameIdentifier ?: return
-            val psiDaoMethod = PsiDaoMethod(e.project, method)
+            val psiDaoMethod = PsiDaoMethod.getInstance(method)
             if (!psiDaoMethod.isUseSqlFileMethod()) return
             val target = psiDaoMethod.sqlFile ?: return
 
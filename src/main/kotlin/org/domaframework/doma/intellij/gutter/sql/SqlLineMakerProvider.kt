@@ -56,8 +56,8 @@ class SqlLineMakerProvider : RelatedItemLineMarkerProvider() {
 
         val identifier = e.firstChild ?: e
         val daoFile = findDaoFile(project, file) ?: return
-        val daoMethod = findDaoMethod(e.containingFile, daoFile) ?: return
-        val psiDaoMethod = PsiDaoMethod(file.project, daoMethod)
+        val daoMethod = findDaoMethod(e.containingFile) ?: return
+        val psiDaoMethod = PsiDaoMethod.getInstance(daoMethod)
         if (!psiDaoMethod.isUseSqlFileMethod()) {
             return
         }
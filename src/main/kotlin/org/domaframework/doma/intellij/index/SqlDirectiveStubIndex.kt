@@ -0,0 +1,99 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.index
+
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.psi.PsiFile
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.stubs.StringStubIndexExtension
+import com.intellij.psi.stubs.StubIndex
+import com.intellij.psi.stubs.StubIndexKey
+import org.domaframework.doma.intellij.psi.SqlFile
+import org.domaframework.doma.intellij.psi.SqlFileStub
+
+/**
+ * Stub index over the directive summary of Doma SQL templates.
+ *
+ * Keys are prefixed by kind:
+ * - `bind:` free bind variable names
+ * - `for:` `%for` item names
+ * - `static:` class names used by `@Class@` static access
+ */
+class SqlDirectiveStubIndex : StringStubIndexExtension<SqlFile>() {
+    override fun getKey(): StubIndexKey<String, SqlFile> = KEY
+
+    companion object {
+        @JvmField
+        val KEY: StubIndexKey<String, SqlFile> =
+            StubIndexKey.createIndexKey("org.domaframework.doma.intellij.SqlDirectiveStubIndex")
+
+        private const val BIND_VARIABLE_PREFIX = "bind:"
+        private const val FOR_ITEM_PREFIX = "for:"
+        private const val STATIC_CLASS_PREFIX = "static:"
+
+        @JvmStatic
+        fun bindVariableKey(name: String): String = "$BIND_VARIABLE_PREFIX$name"
+
+        @JvmStatic
+        fun forItemKey(name: String): String = "$FOR_ITEM_PREFIX$name"
+
+        @JvmStatic
+        fun staticClassKey(className: String): String = "$STATIC_CLASS_PREFIX$className"
+
+        /**
+         * Get SQL files that use [name] as a bind variable outside of a `%for` item scope
+         */
+        fun findFilesByBindVariable(
+            project: Project,
+            name: String,
+            scope: GlobalSearchScope,
+        ): Collection<SqlFile> = findFiles(project, bindVariableKey(name), scope)
+
+        /**
+         * Get SQL files that declare [name] as a `%for` item
+         */
+        fun findFilesByForItem(
+            project: Project,
+            name: String,
+            scope: GlobalSearchScope,
+        ): Collection<SqlFile> = findFiles(project, forItemKey(name), scope)
+
+        /**
+         * Get SQL files that access static members of [className]
+         */
+        fun findFilesByStaticClass(
+            project: Project,
+            className: String,
+            scope: GlobalSearchScope,
+        ): Collection<SqlFile> = findFiles(project, staticClassKey(className), scope)
+
+        /**
+         * Get the directive summary of a SQL file.
+         * The stub is read from the index when the AST is not loaded, so the file is not parsed.
+         */
+        fun getFileStub(file: PsiFile): SqlFileStub? = (file as? SqlFile)?.directiveStub
+
+        private fun findFiles(
+            project: Project,
+            key: String,
+            scope: GlobalSearchScope,
+        ): Collection<SqlFile> {
+            if (DumbService.isDumb(project)) return emptyList()
+            return StubIndex.getElements(KEY, key, project, scope, SqlFile::class.java)
+        }
+    }
+}
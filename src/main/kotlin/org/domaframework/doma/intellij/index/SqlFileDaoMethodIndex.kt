@@ -0,0 +1,174 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.index
+
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.util.indexing.DataIndexer
+import com.intellij.util.indexing.FileBasedIndex
+import com.intellij.util.indexing.FileBasedIndexExtension
+import com.intellij.util.indexing.FileContent
+import com.intellij.util.indexing.ID
+import com.intellij.util.io.DataExternalizer
+import com.intellij.util.io.EnumeratorStringDescriptor
+import com.intellij.util.io.KeyDescriptor
+import org.domaframework.doma.intellij.common.RESOURCES_META_INF_PATH
+
+/**
+ * Index that maps SQL template files to the DAO method that uses them.
+ *
+ * Key: `DAO FQN#methodName` (e.g. `doma.example.dao.EmployeeDao#selectById`)
+ *
+ * Value: SQL file path relative to the resource root (e.g. `META-INF/doma/example/dao/EmployeeDao/selectById.sql`)
+ *
+ * The mapping is derived from the file path only, so the SQL file contents are never loaded during indexing.
+ */
+class SqlFileDaoMethodIndex : FileBasedIndexExtension<String, String>() {
+    override fun getName(): ID<String, String> = NAME
+
+    override fun getIndexer(): DataIndexer<String, String, FileContent> =
+        DataIndexer { inputData ->
+            val relativePath = getRelativeSqlFilePath(inputData.file) ?: return@DataIndexer emptyMap()
+            val key = createKeyFromRelativePath(relativePath) ?: return@DataIndexer emptyMap()
+            mapOf(key to relativePath)
+        }
+
+    override fun getKeyDescriptor(): KeyDescriptor<String> = EnumeratorStringDescriptor.INSTANCE
+
+    override fun getValueExternalizer(): DataExternalizer<String> = EnumeratorStringDescriptor.INSTANCE
+
+    override fun getVersion(): Int = 1
+
+    override fun getInputFilter(): FileBasedIndex.InputFilter =
+        FileBasedIndex.InputFilter { file ->
+            !file.isDirectory &&
+                SQL_TEMPLATE_EXTENSIONS.contains(file.extension) &&
+                file.path.contains("/$RESOURCES_META_INF_PATH/")
+        }
+
+    override fun dependsOnFileContent(): Boolean = false
+
+    /**
+     * DAO method information held by the index for a single SQL file
+     * @property daoClassName DAO class FQN
+     * @property methodName DAO method name (SQL file name without extension)
+     * @property relativePath SQL file path relative to the resource root
+     */
+    data class DaoMethodEntry(
+        val daoClassName: String,
+        val methodName: String,
+        val relativePath: String,
+    )
+
+    companion object {
+        val NAME: ID<String, String> = ID.create("org.domaframework.doma.intellij.SqlFileDaoMethodIndex")
+
+        private const val METHOD_SEPARATOR = "#"
+
+        private val SQL_TEMPLATE_EXTENSIONS = setOf("sql", "script")
+
+        fun createKey(
+            daoClassName: String,
+            methodName: String,
+        ): String = "$daoClassName$METHOD_SEPARATOR$methodName"
+
+        /**
+         * Generate index key from SQL file relative path
+         * @param relativePath ex) META-INF/doma/example/dao/EmployeeDao/selectById.sql
+         * @return ex) doma.example.dao.EmployeeDao#selectById
+         */
+        fun createKeyFromRelativePath(relativePath: String): String? {
+            val daoPath =
+                relativePath
+                    .substringAfter("$RESOURCES_META_INF_PATH/", "")
+                    .substringBeforeLast("/", "")
+            if (daoPath.isEmpty()) return null
+            val methodName = relativePath.substringAfterLast("/").substringBeforeLast(".")
+            if (methodName.isEmpty()) return null
+            return createKey(daoPath.replace("/", "."), methodName)
+        }
+
+        private fun getRelativeSqlFilePath(file: VirtualFile): String? {
+            val path = file.path
+            val metaInfIndex = path.lastIndexOf("/$RESOURCES_META_INF_PATH/")
+            if (metaInfIndex < 0) return null
+            return path.substring(metaInfIndex + 1)
+        }
+
+        /**
+         * Get SQL files used by the DAO method
+         * @param project target project
+         * @param daoClassName DAO class FQN
+         * @param methodName DAO method name
+         * @param scope search scope
+         * @return SQL files registered for the DAO method, empty during indexing
+         */
+        fun findSqlFiles(
+            project: Project,
+            daoClassName: String,
+            methodName: String,
+            scope: GlobalSearchScope,
+        ): Collection<VirtualFile> {
+            if (DumbService.isDumb(project)) return emptyList()
+            return FileBasedIndex
+                .getInstance()
+                .getContainingFiles(NAME, createKey(daoClassName, methodName), scope)
+        }
+
+        /**
+         * Get SQL file from the relative path generated from the DAO method
+         * @param project target project
+         * @param relativePath ex) META-INF/doma/example/dao/EmployeeDao/selectById.sql
+         * @param scope search scope
+         * @return SQL file whose path ends with [relativePath], null during indexing
+         */
+        fun findSqlFile(
+            project: Project,
+            relativePath: String,
+            scope: GlobalSearchScope,
+        ): VirtualFile? {
+            if (DumbService.isDumb(project)) return null
+            val normalizedPath = relativePath.replace("//", "/")
+            val key = createKeyFromRelativePath(normalizedPath) ?: return null
+            return FileBasedIndex
+                .getInstance()
+                .getContainingFiles(NAME, key, scope)
+                .firstOrNull { it.path.endsWith("/$normalizedPath") }
+        }
+
+        /**
+         * Get DAO method information from SQL file
+         * @param project target project
+         * @param sqlFile SQL template file
+         * @return DAO method information, null if the file is not a SQL template or during indexing
+         */
+        fun findDaoMethodEntry(
+            project: Project,
+            sqlFile: VirtualFile,
+        ): DaoMethodEntry? {
+            if (DumbService.isDumb(project)) return null
+            val data = FileBasedIndex.getInstance().getFileData(NAME, sqlFile, project)
+            val (key, relativePath) = data.entries.firstOrNull() ?: return null
+            return DaoMethodEntry(
+                key.substringBefore(METHOD_SEPARATOR),
+                key.substringAfter(METHOD_SEPARATOR),
+                relativePath,
+            )
+        }
+    }
+}
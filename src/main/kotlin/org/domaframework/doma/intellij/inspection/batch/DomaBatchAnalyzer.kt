@@ -0,0 +1,290 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.intellij.codeInsight.daemon.HighlightDisplayKey
+import com.intellij.codeInspection.InspectionManager
+import com.intellij.codeInspection.LocalInspectionTool
+import com.intellij.codeInspection.ProblemDescriptor
+import com.intellij.codeInspection.ProblemDescriptorUtil
+import com.intellij.codeInspection.ProblemsHolder
+import com.intellij.lang.annotation.HighlightSeverity
+import com.intellij.lang.injection.InjectedLanguageManager
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.diagnostic.ControlFlowException
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProcessCanceledException
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.progress.ProgressManager
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiManager
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor
+import com.intellij.psi.search.FileTypeIndex
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.search.searches.AnnotatedElementsSearch
+import com.intellij.profile.codeInspection.InspectionProjectProfileManager
+import com.intellij.util.concurrency.AppExecutorUtil
+import org.domaframework.doma.intellij.common.dao.getDaoClass
+import org.domaframework.doma.intellij.common.psi.PsiDaoMethod
+import org.domaframework.doma.intellij.common.util.DomaClassName
+import org.domaframework.doma.intellij.extension.getJavaClazz
+import org.domaframework.doma.intellij.inspection.dao.inspector.DaoAnnotationOptionParameterInspection
+import org.domaframework.doma.intellij.inspection.dao.inspector.DaoMethodParamTypeInspection
+import org.domaframework.doma.intellij.inspection.dao.inspector.DaoMethodReturnTypeInspection
+import org.domaframework.doma.intellij.inspection.dao.inspector.SqlFileExistInspection
+import org.domaframework.doma.intellij.inspection.dao.inspector.UsedDaoMethodParamInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlFunctionCallInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlLoopDirectiveTypeInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlTestDataInspection
+import org.domaframework.doma.intellij.setting.SqlFileType
+import java.util.concurrent.CancellationException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executor
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs the Doma inspections over every DAO and SQL template of a project.
+ *
+ * Each DAO file is analyzed together with the SQL files of its methods, so the DAO method
+ * resolution cached by [PsiDaoMethod] and the SQL file analysis are reused by both sides.
+ * SQL files that no DAO method refers to are analyzed afterwards.
+ * Files are read in non-blocking read actions on a bounded pool, and [onProblems]
+ * receives the problems of each file on the worker thread as soon as it is done.
+ * [shortNames] limits the run to the given inspections; all Doma inspections run when it is null.
+ */
+class DomaBatchAnalyzer(
+    private val project: Project,
+    private val shortNames: Set<String>? = null,
+    private val onProblems: (List<Problem>) -> Unit,
+) {
+    /**
+     * Problem found in a file; [line] and [column] are zero-based
+     */
+    data class Problem(
+        val inspection: String,
+        val file: VirtualFile,
+        val line: Int,
+        val column: Int,
+        val message: String,
+        val isError: Boolean,
+    )
+
+    private val daoInspections: List<LocalInspectionTool> =
+        listOf(
+            SqlFileExistInspection(),
+            UsedDaoMethodParamInspection(),
+            DaoMethodReturnTypeInspection(),
+            DaoMethodParamTypeInspection(),
+            DaoAnnotationOptionParameterInspection(),
+        )
+
+    private val sqlInspections: List<LocalInspectionTool> =
+        listOf(
+            SqlBindVariableInspection(),
+            SqlLoopDirectiveTypeInspection(),
+            SqlFunctionCallInspection(),
+            SqlTestDataInspection(),
+        )
+
+    /**
+     * Analyze the project and return the number of analyzed files.
+     * Throws [ProcessCanceledException] when [indicator] is canceled.
+     */
+    fun run(indicator: ProgressIndicator): Int {
+        val executor = AppExecutorUtil.createBoundedApplicationPoolExecutor("Doma SQL Analyzer", WORKER_COUNT)
+        val scope = GlobalSearchScope.projectScope(project)
+        val daoFiles =
+            ReadAction
+                .nonBlocking<List<VirtualFile>> { findDaoFiles(scope) }
+                .inSmartMode(project)
+                .wrapProgress(indicator)
+                .executeSynchronously()
+        val sqlFiles =
+            ReadAction
+                .nonBlocking<Collection<VirtualFile>> { FileTypeIndex.getFiles(SqlFileType.INSTANCE, scope) }
+                .inSmartMode(project)
+                .wrapProgress(indicator)
+                .executeSynchronously()
+
+        val total = daoFiles.size + sqlFiles.size
+        val done = AtomicInteger()
+        indicator.isIndeterminate = false
+
+        // SQL files analyzed together with their DAO, filled before the remaining SQL files are submitted
+        val daoSqlFiles = ConcurrentHashMap.newKeySet<VirtualFile>()
+        runAll(
+            daoFiles.map { daoFile ->
+                {
+                    val (problems, ownSqlFiles) = analyzeDaoFile(daoFile)
+                    daoSqlFiles.addAll(ownSqlFiles)
+                    problems
+                }
+            },
+            executor,
+            indicator,
+        ) { indicator.fraction = done.incrementAndGet().toDouble() / total }
+        val remainingSqlFiles = sqlFiles.filterNot { daoSqlFiles.contains(it) }
+        done.addAndGet(sqlFiles.size - remainingSqlFiles.size)
+        runAll(
+            remainingSqlFiles.map { sqlFile -> { analyzeSqlFile(sqlFile) } },
+            executor,
+            indicator,
+        ) { indicator.fraction = done.incrementAndGet().toDouble() / total }
+        return daoFiles.size + daoSqlFiles.size + remainingSqlFiles.size
+    }
+
+    private fun findDaoFiles(scope: GlobalSearchScope): List<VirtualFile> {
+        val daoAnnotation = project.getJavaClazz(DomaClassName.DAO.className) ?: return emptyList()
+        return AnnotatedElementsSearch
+            .searchPsiClasses(daoAnnotation, scope)
+            .findAll()
+            .mapNotNull { it.containingFile?.virtualFile }
+            .distinct()
+    }
+
+    /**
+     * Submit [jobs] to [executor] and wait until all of them are processed.
+     * [onProblems] is called before a job counts as processed, so every problem is delivered on return.
+     */
+    private fun runAll(
+        jobs: List<() -> List<Problem>>,
+        executor: Executor,
+        indicator: ProgressIndicator,
+        onProcessed: () -> Unit,
+    ) {
+        val remaining = CountDownLatch(jobs.size)
+        val promises =
+            jobs.map { analyze ->
+                ReadAction
+                    .nonBlocking<List<Problem>> { analyze() }
+                    .inSmartMode(project)
+                    .wrapProgress(indicator)
+                    .expireWhen { project.isDisposed }
+                    .submit(executor)
+                    .onSuccess { problems -> if (problems.isNotEmpty()) onProblems(problems) }
+                    .onError { e ->
+                        if (e !is ControlFlowException && e !is CancellationException) {
+                            logger.warn("Doma SQL analysis failed", e)
+                        }
+                    }.onProcessed {
+                        onProcessed()
+                        remaining.countDown()
+                    }
+            }
+        try {
+            while (!remaining.await(WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                indicator.checkCanceled()
+            }
+            indicator.checkCanceled()
+        } catch (e: ProcessCanceledException) {
+            promises.forEach { it.cancel() }
+            throw e
+        }
+    }
+
+    /**
+     * Inspect a DAO file, including its @Sql templates, and the SQL files of its methods
+     */
+    private fun analyzeDaoFile(daoFile: VirtualFile): Pair<List<Problem>, Set<VirtualFile>> {
+        val psiFile = PsiManager.getInstance(project).findFile(daoFile) ?: return emptyList<Problem>() to emptySet()
+        val problems = inspect(psiFile, daoInspections + sqlInspections).toMutableList()
+        val sqlFiles = mutableSetOf<VirtualFile>()
+        getDaoClass(psiFile)?.methods?.forEach { method ->
+            ProgressManager.checkCanceled()
+            val psiDaoMethod = PsiDaoMethod.getInstance(method)
+            if (!psiDaoMethod.isUseSqlFileMethod()) return@forEach
+            val sqlFile = psiDaoMethod.sqlFile ?: return@forEach
+            if (sqlFiles.add(sqlFile)) {
+                problems += analyzeSqlFile(sqlFile)
+            }
+        }
+        return problems to sqlFiles
+    }
+
+    private fun analyzeSqlFile(sqlFile: VirtualFile): List<Problem> {
+        if (!sqlFile.isValid) return emptyList()
+        val psiFile = PsiManager.getInstance(project).findFile(sqlFile) ?: return emptyList()
+        return inspect(psiFile, sqlInspections)
+    }
+
+    private fun inspect(
+        file: PsiFile,
+        tools: List<LocalInspectionTool>,
+    ): List<Problem> {
+        val profile = InspectionProjectProfileManager.getInstance(project).currentProfile
+        val manager = InspectionManager.getInstance(project)
+        return tools.flatMap { tool ->
+            if (shortNames != null && tool.shortName !in shortNames) return@flatMap emptyList()
+            val key = HighlightDisplayKey.find(tool.shortName)
+            if (key != null && !profile.isToolEnabled(key, file)) return@flatMap emptyList()
+            val isError = key == null || profile.getErrorLevel(key, file).severity >= HighlightSeverity.ERROR
+
+            val holder = ProblemsHolder(manager, file, false)
+            val visitor = tool.buildVisitor(holder, false)
+            file.accept(
+                object : PsiRecursiveElementWalkingVisitor() {
+                    override fun visitElement(element: PsiElement) {
+                        element.accept(visitor)
+                        super.visitElement(element)
+                    }
+                },
+            )
+            holder.results.mapNotNull { toProblem(tool.shortName, it, isError) }
+        }
+    }
+
+    private fun toProblem(
+        inspection: String,
+        descriptor: ProblemDescriptor,
+        isError: Boolean,
+    ): Problem? {
+        val element = descriptor.psiElement ?: return null
+        // Problems in @Sql templates are reported at their position in the DAO file
+        val injectedLanguageManager = InjectedLanguageManager.getInstance(project)
+        val file = injectedLanguageManager.getTopLevelFile(element) ?: return null
+        val virtualFile = file.virtualFile ?: return null
+        val document = PsiDocumentManager.getInstance(project).getDocument(file) ?: return null
+        val offset =
+            injectedLanguageManager.injectedToHost(
+                element,
+                element.textRange.startOffset + (descriptor.textRangeInElement?.startOffset ?: 0),
+            )
+        val line = document.getLineNumber(offset)
+        val message = ProblemDescriptorUtil.renderDescriptionMessage(descriptor, element)
+        return Problem(
+            inspection,
+            virtualFile,
+            line,
+            offset - document.getLineStartOffset(line),
+            StringUtil.removeHtmlTags(message),
+            isError,
+        )
+    }
+
+    companion object {
+        private val logger = Logger.getInstance(DomaBatchAnalyzer::class.java)
+        private val WORKER_COUNT = maxOf(1, Runtime.getRuntime().availableProcessors() - 1)
+        private const val WAIT_MILLIS = 100L
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.intellij.ide.impl.OpenProjectTask
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.application.ApplicationStarter
+import com.intellij.openapi.application.ReadAction
+import com.intellij.openapi.application.ex.ApplicationManagerEx
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.project.DumbService
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.project.ProjectManager
+import com.intellij.openapi.project.ex.ProjectManagerEx
+import org.domaframework.doma.intellij.common.util.DomaClassName
+import org.domaframework.doma.intellij.extension.getJavaClazz
+import org.domaframework.doma.intellij.inspection.dao.inspector.SqlFileExistInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlFunctionCallInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlLoopDirectiveTypeInspection
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentLinkedQueue
+
+/**
+ * Headless validator for CI:
+ * `idea domaSqlValidate <project path> [--format=sarif|json] [--output=<file>]`
+ *
+ * Opens the project only from its existing `.idea` configuration, waits for indexing once and runs the
+ * bind variable, loop directive type, function call and SQL file existence checks through
+ * [DomaBatchAnalyzer]. Gradle and Maven projects are not imported and nothing is downloaded,
+ * so the libraries must already be resolved in that configuration.
+ * The report is written to the output file or to stdout. The exit code is 0 without errors,
+ * 1 when errors are found, 2 for invalid arguments and 3 when the validation itself fails.
+ * The application exits normally afterwards, so the indexes are saved for the next run.
+ */
+class DomaSqlValidatorStarter : ApplicationStarter {
+    override val isHeadless: Boolean
+        get() = true
+
+    override val requiredModality: Int
+        get() = ApplicationStarter.NOT_IN_EDT
+
+    override fun main(args: List<String>) {
+        val exitCode =
+            try {
+                validate(parseOptions(args.drop(1)))
+            } catch (e: IllegalArgumentException) {
+                System.err.println(e.message)
+                System.err.println(USAGE)
+                EXIT_INVALID_ARGUMENTS
+            } catch (e: Exception) {
+                e.printStackTrace()
+                EXIT_FAILURE
+            }
+        ApplicationManagerEx.getApplicationEx().exit(true, true, exitCode)
+    }
+
+    internal data class Options(
+        val projectPath: Path,
+        val format: ValidationReportWriter.Format,
+        val output: Path?,
+    )
+
+    private fun validate(options: Options): Int {
+        // Keep external systems from syncing the project, which could download dependencies
+        System.setProperty(AUTO_IMPORT_DISABLED_PROPERTY, "true")
+        val project =
+            ProjectManagerEx.getInstanceEx().openProject(
+                options.projectPath,
+                OpenProjectTask {
+                    runConfigurators = false
+                    isNewProject = false
+                    showWelcomeScreen = false
+                },
+            ) ?: throw IllegalStateException("Could not open project: ${options.projectPath}")
+        try {
+            DumbService.getInstance(project).waitForSmartMode()
+            checkDomaResolved(project)
+
+            val problems = ConcurrentLinkedQueue<DomaBatchAnalyzer.Problem>()
+            val analyzedFileCount =
+                DomaBatchAnalyzer(project, SHORT_NAMES) { problems.addAll(it) }
+                    .run(EmptyProgressIndicator())
+            val sortedProblems = problems.sortedWith(compareBy({ it.file.path }, { it.line }, { it.column }))
+            val report = ValidationReportWriter(project, sortedProblems, analyzedFileCount).write(options.format)
+            if (options.output == null) {
+                println(report)
+            } else {
+                Files.writeString(options.output, report)
+            }
+            return getExitCode(sortedProblems)
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait {
+                ProjectManager.getInstance().closeAndDispose(project)
+            }
+        }
+    }
+
+    /**
+     * Without the Doma library no DAO is found and every check would pass,
+     * so fail when the stored configuration does not resolve it
+     */
+    private fun checkDomaResolved(project: Project) {
+        val isResolved =
+            ReadAction.compute<Boolean, RuntimeException> { project.getJavaClazz(DomaClassName.DAO.className) != null }
+        if (!isResolved) {
+            throw IllegalStateException(
+                "Not Found ${DomaClassName.DAO.className} in ${project.name}. " +
+                    "Import the project in the IDE once so that its libraries are resolved in .idea",
+            )
+        }
+    }
+
+    companion object {
+        private const val FORMAT_OPTION = "--format="
+        private const val OUTPUT_OPTION = "--output="
+        private const val AUTO_IMPORT_DISABLED_PROPERTY = "external.system.auto.import.disabled"
+        private const val USAGE =
+            "Usage: domaSqlValidate <project path> [--format=sarif|json] [--output=<file>]\n" +
+                "The project is opened offline from its .idea configuration; Gradle and Maven projects are not imported."
+
+        const val EXIT_OK = 0
+        const val EXIT_ERRORS_FOUND = 1
+        const val EXIT_INVALID_ARGUMENTS = 2
+        const val EXIT_FAILURE = 3
+
+        private val SHORT_NAMES =
+            setOf(
+                SqlBindVariableInspection.SHORT_NAME,
+                SqlLoopDirectiveTypeInspection.SHORT_NAME,
+                SqlFunctionCallInspection.SHORT_NAME,
+                SqlFileExistInspection.SHORT_NAME,
+            )
+
+        /**
+         * Parse the arguments after the command name; throws [IllegalArgumentException] for invalid arguments
+         */
+        internal fun parseOptions(args: List<String>): Options {
+            var projectPath: Path? = null
+            var format = ValidationReportWriter.Format.SARIF
+            var output: Path? = null
+            args.forEach { arg ->
+                when {
+                    arg.startsWith(FORMAT_OPTION) -> {
+                        val value = arg.removePrefix(FORMAT_OPTION)
+                        format = ValidationReportWriter.Format.entries.find { it.name.equals(value, true) }
+                            ?: throw IllegalArgumentException("Unknown format: $value")
+                    }
+                    arg.startsWith(OUTPUT_OPTION) -> output = Path.of(arg.removePrefix(OUTPUT_OPTION))
+                    projectPath == null -> projectPath = Path.of(arg)
+                    else -> throw IllegalArgumentException("Unexpected argument: $arg")
+                }
+            }
+            val path = projectPath ?: throw IllegalArgumentException("Project path is required")
+            require(Files.isDirectory(path)) { "Project directory not found: $path" }
+            require(Files.isDirectory(path.resolve(Project.DIRECTORY_STORE_FOLDER))) {
+                "Not Found ${Project.DIRECTORY_STORE_FOLDER} in $path. Open the project in the IDE once to create it"
+            }
+            return Options(path.toAbsolutePath().normalize(), format, output)
+        }
+
+        internal fun getExitCode(problems: Collection<DomaBatchAnalyzer.Problem>): Int =
+            if (problems.any { it.isError }) EXIT_ERRORS_FOUND else EXIT_OK
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.google.gson.GsonBuilder
+import com.google.gson.JsonArray
+import com.google.gson.JsonObject
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.project.guessProjectDir
+import com.intellij.openapi.vfs.VfsUtilCore
+import com.intellij.openapi.vfs.VirtualFile
+import org.domaframework.doma.intellij.common.util.PluginUtil
+import java.net.URI
+import java.nio.file.Path
+
+/**
+ * Formats the problems found by [DomaBatchAnalyzer] as SARIF 2.1.0 or as plain JSON.
+ * File paths are relative to [baseDir], the project directory by default; lines and columns are one-based.
+ * SARIF locations refer to [baseDir] through the `%SRCROOT%` base id,
+ * and files outside of it are reported with absolute `file` URIs.
+ */
+class ValidationReportWriter(
+    private val project: Project,
+    private val problems: List<DomaBatchAnalyzer.Problem>,
+    private val analyzedFileCount: Int,
+    private val baseDir: VirtualFile? = project.guessProjectDir(),
+) {
+    enum class Format {
+        SARIF,
+        JSON,
+    }
+
+    fun write(format: Format): String {
+        val report =
+            when (format) {
+                Format.SARIF -> createSarif()
+                Format.JSON -> createJson()
+            }
+        return GsonBuilder().setPrettyPrinting().create().toJson(report)
+    }
+
+    private fun createSarif(): JsonObject {
+        val rules = JsonArray()
+        problems.map { it.inspection }.distinct().sorted().forEach { rules.add(JsonObject().apply { addProperty("id", it) }) }
+
+        val driver = JsonObject()
+        driver.addProperty("name", "Doma Tools")
+        driver.addProperty("version", PluginUtil.getVersion())
+        driver.add("rules", rules)
+
+        val results = JsonArray()
+        problems.forEach { problem ->
+            val region = JsonObject()
+            region.addProperty("startLine", problem.line + 1)
+            region.addProperty("startColumn", problem.column + 1)
+            val physicalLocation = JsonObject()
+            physicalLocation.add("artifactLocation", createArtifactLocation(problem.file))
+            physicalLocation.add("region", region)
+
+            val result = JsonObject()
+            result.addProperty("ruleId", problem.inspection)
+            result.addProperty("level", if (problem.isError) "error" else "warning")
+            result.add("message", JsonObject().apply { addProperty("text", problem.message) })
+            result.add("locations", JsonArray().apply { add(JsonObject().apply { add("physicalLocation", physicalLocation) }) })
+            results.add(result)
+        }
+
+        val run = JsonObject()
+        run.add("tool", JsonObject().apply { add("driver", driver) })
+        baseDir?.let { dir ->
+            val srcRoot = JsonObject().apply { addProperty("uri", toFileUri(dir, true)) }
+            run.add("originalUriBaseIds", JsonObject().apply { add(SRC_ROOT, srcRoot) })
+        }
+        run.add("results", results)
+
+        val sarif = JsonObject()
+        sarif.addProperty("\$schema", SARIF_SCHEMA)
+        sarif.addProperty("version", "2.1.0")
+        sarif.add("runs", JsonArray().apply { add(run) })
+        return sarif
+    }
+
+    private fun createJson(): JsonObject {
+        val items = JsonArray()
+        problems.forEach { problem ->
+            val item = JsonObject()
+            item.addProperty("inspection", problem.inspection)
+            item.addProperty("severity", if (problem.isError) "error" else "warning")
+            item.addProperty("file", getPath(problem))
+            item.addProperty("line", problem.line + 1)
+            item.addProperty("column", problem.column + 1)
+            item.addProperty("message", problem.message)
+            items.add(item)
+        }
+        val json = JsonObject()
+        json.addProperty("pluginVersion", PluginUtil.getVersion())
+        json.addProperty("analyzedFiles", analyzedFileCount)
+        json.add("problems", items)
+        return json
+    }
+
+    private fun createArtifactLocation(file: VirtualFile): JsonObject {
+        val location = JsonObject()
+        val relativePath = baseDir?.let { VfsUtilCore.getRelativePath(file, it) }
+        if (relativePath == null) {
+            location.addProperty("uri", toFileUri(file, false))
+        } else {
+            location.addProperty("uri", URI(null, null, relativePath, null).rawPath)
+            location.addProperty("uriBaseId", SRC_ROOT)
+        }
+        return location
+    }
+
+    private fun toFileUri(
+        file: VirtualFile,
+        isDirectory: Boolean,
+    ): String {
+        val uri = Path.of(file.path).toUri().toString()
+        return if (isDirectory && !uri.endsWith("/")) "$uri/" else uri
+    }
+
+    private fun getPath(problem: DomaBatchAnalyzer.Problem): String {
+        val dir = baseDir ?: return problem.file.path
+        return VfsUtilCore.getRelativePath(problem.file, dir) ?: problem.file.path
+    }
+
+    companion object {
+        private const val SRC_ROOT = "%SRCROOT%"
+        private const val SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json"
+    }
+}
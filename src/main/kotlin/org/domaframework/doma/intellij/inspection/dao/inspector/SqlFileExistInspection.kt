@@ -27,7 +27,7 @@ import org.domaframework.doma.intellij.inspection.dao.visitor.SqlFileExistInspec
 class SqlFileExistInspection : AbstractBaseJavaLocalInspectionTool() {
     override fun getDisplayName(): String = "Check existence of SQL file"
 
-    override fun getShortName(): String = "org.domaframework.doma.intellij.existsqlchecker"
+    override fun getShortName(): String = SHORT_NAME
 
     override fun getGroupDisplayName(): String = "DomaTools"
 
@@ -39,4 +39,8 @@ class SqlFileExistInspection : AbstractBaseJavaLocalInspectionTool() {
         holder: ProblemsHolder,
         isOnTheFly: Boolean,
     ): PsiElementVisitor = SqlFileExistInspectionVisitor(holder, this.shortName)
+
+    companion object {
+        const val SHORT_NAME = "org.domaframework.doma.intellij.existsqlchecker"
+    }
 }
@@ -21,14 +21,12 @@ import com.intellij.psi.PsiField
 import com.intellij.psi.PsiParameter
 import com.intellij.psi.PsiReferenceExpression
 import com.intellij.psi.PsiType
+import org.domaframework.doma.intellij.common.psi.DomaTypeClassifier
 import org.domaframework.doma.intellij.common.psi.PsiDaoMethod
 import org.domaframework.doma.intellij.common.psi.PsiTypeChecker
 import org.domaframework.doma.intellij.common.util.DomaClassName
 import org.domaframework.doma.intellij.common.util.StringUtil.SINGLE_SPACE
-import org.domaframework.doma.intellij.extension.getJavaClazz
 import org.domaframework.doma.intellij.extension.psi.getSuperType
-import org.domaframework.doma.intellij.extension.psi.isDataType
-import org.domaframework.doma.intellij.extension.psi.isDomain
 
 /**
  * Abstract base class for type checking processors in DAO inspections.
@@ -45,6 +43,7 @@ abstract class TypeCheckerProcessor(
     protected val returningFqn = DomaClassName.RETURNING.className
     protected val method = psiDaoMethod.psiMethod
     protected val project = method.project
+    protected val typeClassifier = DomaTypeClassifier.getInstance(project)
 
     protected fun getAnnotation(fqName: String): PsiAnnotation? = method.annotations.find { it.qualifiedName == fqName }
 
@@ -99,13 +98,12 @@ abstract class TypeCheckerProcessor(
             val paramClassType = paramType as? PsiClassType ?: return false
             val optionalParam = paramClassType.parameters.firstOrNull()
             return optionalParam?.let {
-                val optionalParamClass = project.getJavaClazz(it)
-                optionalParamClass?.isDomain() == true || optionalParamClass?.isDataType() == true || PsiTypeChecker.isBaseClassType(it)
+                typeClassifier.hasAnyRole(it, DomaTypeClassifier.DOMAIN or DomaTypeClassifier.DATA_TYPE) ||
+                    PsiTypeChecker.isBaseClassType(it)
             } == true
         }
 
-        val paramClass = project.getJavaClazz(paramType.canonicalText)
-        return paramClass?.isDomain() == true || paramClass?.isDataType() == true
+        return typeClassifier.hasAnyRole(paramType.canonicalText, DomaTypeClassifier.DOMAIN or DomaTypeClassifier.DATA_TYPE)
     }
 
     protected fun checkMapType(paramTypeCanonicalText: String): Boolean {
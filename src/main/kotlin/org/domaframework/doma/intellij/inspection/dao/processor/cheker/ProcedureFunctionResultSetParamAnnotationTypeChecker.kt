@@ -20,15 +20,12 @@ import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiType
+import org.domaframework.doma.intellij.common.psi.DomaTypeClassifier
 import org.domaframework.doma.intellij.common.psi.PsiDaoMethod
 import org.domaframework.doma.intellij.common.psi.PsiTypeChecker
 import org.domaframework.doma.intellij.common.util.DomaClassName
 import org.domaframework.doma.intellij.common.validation.result.ValidationMethodParamsSupportGenericParamResult
 import org.domaframework.doma.intellij.common.validation.result.ValidationMethodProcedureParamTypeResult
-import org.domaframework.doma.intellij.extension.getJavaClazz
-import org.domaframework.doma.intellij.extension.psi.isDataType
-import org.domaframework.doma.intellij.extension.psi.isDomain
-import org.domaframework.doma.intellij.extension.psi.isEntity
 
 class ProcedureFunctionResultSetParamAnnotationTypeChecker(
     psiDaoMethod: PsiDaoMethod,
@@ -44,18 +41,15 @@ class ProcedureFunctionResultSetParamAnnotationTypeChecker(
             val paramClassType = paramType as? PsiClassType ?: return false
             val optionalParam = paramClassType.parameters.firstOrNull()
             return optionalParam?.let {
-                val optionalParamClass = project.getJavaClazz(it)
-                optionalParamClass?.isDomain() == true ||
-                    optionalParamClass?.isEntity() == true ||
-                    optionalParamClass?.isDataType() == true ||
-                    PsiTypeChecker.isBaseClassType(
-                        it,
-                    )
+                typeClassifier.hasAnyRole(
+                    it,
+                    DomaTypeClassifier.DOMAIN or DomaTypeClassifier.ENTITY or DomaTypeClassifier.DATA_TYPE,
+                ) ||
+                    PsiTypeChecker.isBaseClassType(it)
             } == true
         }
 
-        val paramClass = project.getJavaClazz(paramType)
-        return paramClass?.isDomain() == true || paramClass?.isDataType() == true
+        return typeClassifier.hasAnyRole(paramType, DomaTypeClassifier.DOMAIN or DomaTypeClassifier.DATA_TYPE)
     }
 
     override fun checkParam(
@@ -101,9 +95,11 @@ class ProcedureFunctionResultSetParamAnnotationTypeChecker(
             return
         }
 
-        val paramClass = project.getJavaClazz(listParamType)
-
-        if (checkParamType(listParamType) || paramClass?.isEntity() == true || paramClass?.isDataType() == true) return
+        if (checkParamType(listParamType) ||
+            typeClassifier.hasAnyRole(listParamType, DomaTypeClassifier.ENTITY or DomaTypeClassifier.DATA_TYPE)
+        ) {
+            return
+        }
         result.highlightElement(holder)
     }
 }
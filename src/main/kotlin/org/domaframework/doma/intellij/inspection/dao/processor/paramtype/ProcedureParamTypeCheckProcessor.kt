@@ -47,7 +47,7 @@ class ProcedureParamTypeCheckProcessor(
     override fun checkParams(holder: ProblemsHolder) {
         val params = method.parameterList.parameters
         var paramAnnotationType: ProcedureFunctionParamAnnotationType? = null
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         params.forEach { param: PsiParameter ->
             val paramAnnotation =
                 param.annotations.firstOrNull { annotation ->
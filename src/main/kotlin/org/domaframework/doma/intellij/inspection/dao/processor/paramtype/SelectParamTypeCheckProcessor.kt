@@ -19,17 +19,14 @@ import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.psi.PsiClassType
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiType
+import org.domaframework.doma.intellij.common.psi.DomaTypeClassifier
 import org.domaframework.doma.intellij.common.psi.PsiDaoMethod
 import org.domaframework.doma.intellij.common.psi.PsiTypeChecker
 import org.domaframework.doma.intellij.common.util.DomaClassName
 import org.domaframework.doma.intellij.common.validation.result.ValidationMethodNotSelectStreamParamResult
 import org.domaframework.doma.intellij.common.validation.result.ValidationMethodParamsSupportGenericParamResult
 import org.domaframework.doma.intellij.common.validation.result.ValidationMethodSelectStrategyParamResult
-import org.domaframework.doma.intellij.extension.getJavaClazz
 import org.domaframework.doma.intellij.extension.psi.getSuperClassType
-import org.domaframework.doma.intellij.extension.psi.isDataType
-import org.domaframework.doma.intellij.extension.psi.isDomain
-import org.domaframework.doma.intellij.extension.psi.isEntity
 import org.domaframework.doma.intellij.inspection.dao.processor.StrategyParam
 
 class SelectParamTypeCheckProcessor(
@@ -47,16 +44,11 @@ class SelectParamTypeCheckProcessor(
             val paramClassType = paramType as? PsiClassType ?: return false
             val optionalParam = paramClassType.parameters.firstOrNull()
             return optionalParam?.let {
-                val optionalParamClass = project.getJavaClazz(it)
-                optionalParamClass?.isDomain() == true ||
-                    PsiTypeChecker.isBaseClassType(it) ||
-                    optionalParamClass?.isEntity() == true ||
-                    optionalParamClass?.isDataType() == true
+                PsiTypeChecker.isBaseClassType(it) || typeClassifier.hasAnyRole(it, PARAM_ROLES)
             } == true
         }
 
-        val paramClass = project.getJavaClazz(paramType)
-        return paramClass?.isDomain() == true || paramClass?.isEntity() == true || paramClass?.isDataType() == true
+        return typeClassifier.hasAnyRole(paramType, PARAM_ROLES)
     }
 
     override fun checkParams(holder: ProblemsHolder) {
@@ -196,4 +188,8 @@ class SelectParamTypeCheckProcessor(
             paramTypeName,
             genericType,
         )
+
+    companion object {
+        private const val PARAM_ROLES = DomaTypeClassifier.DOMAIN or DomaTypeClassifier.ENTITY or DomaTypeClassifier.DATA_TYPE
+    }
 }
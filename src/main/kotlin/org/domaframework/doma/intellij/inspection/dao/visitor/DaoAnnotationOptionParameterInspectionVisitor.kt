@@ -33,7 +33,7 @@ class DaoAnnotationOptionParameterInspectionVisitor(
         val file = method.containingFile
         if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return
 
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         if (listOf(
                 DomaAnnotationType.Update,
                 DomaAnnotationType.BatchUpdate,
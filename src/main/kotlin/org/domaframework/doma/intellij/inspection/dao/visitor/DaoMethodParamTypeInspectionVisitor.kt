@@ -41,7 +41,7 @@ class DaoMethodParamTypeInspectionVisitor(
         val file = method.containingFile
         if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return
 
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         var processor: ParamTypeCheckProcessor? = getParamTypeCheckProcessor(psiDaoMethod)
         processor?.checkParams(holder)
     }
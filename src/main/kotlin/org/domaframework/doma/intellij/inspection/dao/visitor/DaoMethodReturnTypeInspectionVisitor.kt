@@ -42,7 +42,7 @@ class DaoMethodReturnTypeInspectionVisitor(
         val file = method.containingFile
         if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return
 
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         var processor: ReturnTypeCheckerProcessor? = getReturnTypeCheckProcessor(psiDaoMethod)
         val result = processor?.checkReturnType()
         result?.highlightElement(holder)
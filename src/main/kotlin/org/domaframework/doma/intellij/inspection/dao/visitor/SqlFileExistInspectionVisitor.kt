@@ -33,7 +33,7 @@ class SqlFileExistInspectionVisitor(
         val file = method.containingFile
         if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return
 
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         if (psiDaoMethod.isUseSqlFileMethod()) {
             checkDaoMethod(psiDaoMethod)
         }
@@ -18,9 +18,7 @@ package org.domaframework.doma.intellij.inspection.dao.visitor
 import com.intellij.codeInspection.ProblemHighlightType
 import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.psi.JavaElementVisitor
-import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiMethod
-import com.intellij.psi.PsiParameter
 import com.intellij.psi.impl.source.PsiParameterImpl
 import org.domaframework.doma.intellij.bundle.MessageBundle
 import org.domaframework.doma.intellij.common.dao.getDaoClass
@@ -29,6 +27,7 @@ import org.domaframework.doma.intellij.common.psi.PsiDaoMethod
 import org.domaframework.doma.intellij.extension.findFile
 import org.domaframework.doma.intellij.extension.psi.isIgnoreUsageCheck
 import org.domaframework.doma.intellij.extension.psi.methodParameters
+import org.domaframework.doma.intellij.index.SqlDirectiveStubIndex
 
 class UsedDaoMethodParamInspectionVisitor(
     private val holder: ProblemsHolder,
@@ -38,52 +37,35 @@ class UsedDaoMethodParamInspectionVisitor(
         val file = method.containingFile
         if (!isJavaOrKotlinFileType(file) || getDaoClass(file) == null) return
 
-        val psiDaoMethod = PsiDaoMethod(method.project, method)
+        val psiDaoMethod = PsiDaoMethod.getInstance(method)
         if (!psiDaoMethod.useSqlAnnotation() && !psiDaoMethod.isUseSqlFileMethod()) return
 
         val methodParameters =
             method.methodParameters.filter { !it.isIgnoreUsageCheck() }
-        val sqlFileManager =
+        if (methodParameters.isEmpty()) return
+        val sqlFile =
             psiDaoMethod.sqlFile?.let {
                 method.project.findFile(it)
             } ?: return
+        // Read the root identifiers from the stub so the SQL file is not parsed
+        val directiveStub = SqlDirectiveStubIndex.getFileStub(sqlFile) ?: return
 
-        val params = methodParameters.toList()
-        val result = findElementsInSqlFile(sqlFileManager, params)
-        params.forEach { param ->
-            if (!result.elements.contains(param)) {
-                val message =
-                    if (result.deplicateForItemElements.contains(param)) {
-                        MessageBundle.message("inspection.invalid.dao.duplicate")
-                    } else {
-                        MessageBundle.message(
-                            "inspection.invalid.dao.paramUse",
-                            param.name,
-                        )
-                    }
-                holder.registerProblem(
-                    (param.originalElement as PsiParameterImpl).nameIdentifier,
-                    message,
-                    ProblemHighlightType.ERROR,
-                )
-            }
+        methodParameters.forEach { param ->
+            if (directiveStub.bindVariables.contains(param.name)) return@forEach
+            val message =
+                if (directiveStub.forItemVariables.contains(param.name)) {
+                    MessageBundle.message("inspection.invalid.dao.duplicate")
+                } else {
+                    MessageBundle.message(
+                        "inspection.invalid.dao.paramUse",
+                        param.name,
+                    )
+                }
+            holder.registerProblem(
+                (param.originalElement as PsiParameterImpl).nameIdentifier,
+                message,
+                ProblemHighlightType.ERROR,
+            )
         }
     }
-
-    private data class DaoMethodVariableVisitorResult(
-        val elements: List<PsiParameter>,
-        val deplicateForItemElements: List<PsiParameter>,
-    )
-
-    private fun findElementsInSqlFile(
-        sqlFile: PsiFile,
-        args: List<PsiParameter>,
-    ): DaoMethodVariableVisitorResult {
-        val elements = mutableListOf<PsiParameter>()
-        val deplicateForItemElements = mutableListOf<PsiParameter>()
-
-        sqlFile.accept(DaoMethodRelatedSqlVisitor(args, elements, deplicateForItemElements))
-        val result = DaoMethodVariableVisitorResult(elements, deplicateForItemElements)
-        return result
-    }
 }
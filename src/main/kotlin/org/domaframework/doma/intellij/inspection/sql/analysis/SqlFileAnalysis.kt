@@ -0,0 +1,174 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.sql.analysis
+
+import com.intellij.openapi.fileTypes.PlainTextLanguage
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.openapi.vfs.VirtualFileManager
+import com.intellij.psi.PsiElement
+import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiMethod
+import com.intellij.psi.PsiRecursiveElementWalkingVisitor
+import com.intellij.psi.util.CachedValueProvider
+import com.intellij.psi.util.CachedValuesManager
+import com.intellij.psi.util.PsiModificationTracker
+import com.intellij.psi.util.elementType
+import org.domaframework.doma.intellij.common.dao.findDaoMethod
+import org.domaframework.doma.intellij.common.psi.PsiParentClass
+import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
+import org.domaframework.doma.intellij.common.util.ModificationTrackerUtil
+import org.domaframework.doma.intellij.common.validation.result.ValidationResult
+import org.domaframework.doma.intellij.extension.psi.isFirstElement
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlFunctionCallInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlLoopDirectiveTypeInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlTestDataInspection
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionFieldAccessVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionForDirectiveVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionFunctionCallVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionPrimaryVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionStaticFieldAccessVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.processor.InspectionTestDataVisitorProcessor
+import org.domaframework.doma.intellij.psi.SqlBlockComment
+import org.domaframework.doma.intellij.psi.SqlElFieldAccessExpr
+import org.domaframework.doma.intellij.psi.SqlElForDirective
+import org.domaframework.doma.intellij.psi.SqlElFunctionCallExpr
+import org.domaframework.doma.intellij.psi.SqlElPrimaryExpr
+import org.domaframework.doma.intellij.psi.SqlElStaticFieldAccessExpr
+import org.domaframework.doma.intellij.psi.SqlTypes
+
+/**
+ * Validation results of a SQL template, shared by the DomaSql inspections.
+ *
+ * The file is walked once and every directive element is resolved against the DAO method,
+ * so each inspection only looks up the results for the elements it visits.
+ * The analysis is kept until the file, Java/Kotlin sources, the VFS structure or the project roots change.
+ */
+class SqlFileAnalysis private constructor(
+    file: PsiFile,
+) {
+    val daoMethod: PsiMethod? = findDaoMethod(file)
+
+    private val bindVariableResults = mutableMapOf<PsiElement, ValidationResult>()
+    private val loopDirectiveResults = mutableMapOf<PsiElement, ValidationResult>()
+    private val functionCallResults = mutableMapOf<PsiElement, ValidationResult>()
+    private val testDataResults = mutableMapOf<PsiElement, ValidationResult>()
+
+    init {
+        val forItemTypes = ForItemTypes(file.project)
+        file.accept(
+            object : PsiRecursiveElementWalkingVisitor() {
+                override fun visitElement(element: PsiElement) {
+                    analyze(element, forItemTypes)
+                    super.visitElement(element)
+                }
+            },
+        )
+    }
+
+    fun getBindVariableResult(element: PsiElement): ValidationResult? = bindVariableResults[element]
+
+    fun getLoopDirectiveResult(element: SqlElForDirective): ValidationResult? = loopDirectiveResults[element]
+
+    fun getFunctionCallResult(element: SqlElFunctionCallExpr): ValidationResult? = functionCallResults[element]
+
+    fun getTestDataResult(element: SqlBlockComment): ValidationResult? = testDataResults[element]
+
+    private fun analyze(
+        element: PsiElement,
+        forItemTypes: ForItemTypes,
+    ) {
+        when (element) {
+            is SqlElStaticFieldAccessExpr ->
+                InspectionStaticFieldAccessVisitorProcessor(SqlBindVariableInspection.SHORT_NAME)
+                    .validateBindVariableDefine(element)
+                    ?.let { bindVariableResults[element] = it }
+
+            is SqlElFieldAccessExpr ->
+                InspectionFieldAccessVisitorProcessor(
+                    SqlBindVariableInspection.SHORT_NAME,
+                    element,
+                    daoMethod,
+                    forItemTypes,
+                ).validateBindVariableDefine()
+                    ?.let { bindVariableResults[element] = it }
+
+            is SqlElPrimaryExpr -> {
+                if (!element.isFirstElement() || element.prevSibling?.elementType == SqlTypes.AT_SIGN) return
+                InspectionPrimaryVisitorProcessor(SqlBindVariableInspection.SHORT_NAME, element)
+                    .validate(daoMethod, forItemTypes)
+                    ?.let { bindVariableResults[element] = it }
+            }
+
+            is SqlElForDirective ->
+                InspectionForDirectiveVisitorProcessor(SqlLoopDirectiveTypeInspection.SHORT_NAME, element)
+                    .validate(forItemTypes)
+                    ?.let { loopDirectiveResults[element] = it }
+
+            is SqlElFunctionCallExpr ->
+                InspectionFunctionCallVisitorProcessor(SqlFunctionCallInspection.SHORT_NAME, element)
+                    .validate()
+                    ?.let { functionCallResults[element] = it }
+
+            is SqlBlockComment ->
+                InspectionTestDataVisitorProcessor(SqlTestDataInspection.SHORT_NAME, element)
+                    .validate()
+                    ?.let { testDataResults[element] = it }
+        }
+    }
+
+    /**
+     * Memo of `%for` item types, so that the declaration chain of nested loops
+     * is resolved once per item for the whole file instead of once per reference.
+     */
+    class ForItemTypes(
+        private val project: Project,
+    ) {
+        private val types = mutableMapOf<Pair<List<ForDirectiveUtil.BlockToken>, PsiElement?>, PsiParentClass?>()
+
+        fun getForDirectiveItemClassType(
+            forDirectiveBlocks: List<ForDirectiveUtil.BlockToken>,
+            targetForItem: PsiElement? = null,
+        ): PsiParentClass? {
+            val key = forDirectiveBlocks to targetForItem
+            // Unresolved items are memoized as well, so getOrPut is not used
+            if (types.containsKey(key)) return types[key]
+            return ForDirectiveUtil
+                .getForDirectiveItemClassType(project, forDirectiveBlocks, targetForItem)
+                .also { types[key] = it }
+        }
+    }
+
+    companion object {
+        /**
+         * Get the cached analysis of [file]
+         */
+        fun getInstance(file: PsiFile): SqlFileAnalysis =
+            CachedValuesManager.getCachedValue(file) {
+                val project = file.project
+                CachedValueProvider.Result.create(
+                    SqlFileAnalysis(file),
+                    file,
+                    ModificationTrackerUtil.getJvmSourceTracker(project),
+                    // doma.compile.config is a plain text file and selects the expression functions class
+                    PsiModificationTracker.getInstance(project).forLanguage(PlainTextLanguage.INSTANCE),
+                    VirtualFileManager.VFS_STRUCTURE_MODIFICATIONS,
+                    ProjectRootManager.getInstance(project),
+                )
+            }
+    }
+}
@@ -27,7 +27,7 @@ import org.domaframework.doma.intellij.psi.SqlVisitor
 class SqlBindVariableInspection : LocalInspectionTool() {
     override fun getDisplayName(): String = "Check bind variables"
 
-    override fun getShortName(): String = "org.domaframework.doma.intellij.validBindVariable"
+    override fun getShortName(): String = SHORT_NAME
 
     override fun getGroupDisplayName(): String = "DomaTools"
 
@@ -40,5 +40,9 @@ class SqlBindVariableInspection : LocalInspectionTool() {
     override fun buildVisitor(
         holder: ProblemsHolder,
         isOnTheFly: Boolean,
-    ): SqlVisitor = SqlBindVariableInspectionVisitor(holder, this.shortName)
+    ): SqlVisitor = SqlBindVariableInspectionVisitor(holder)
+
+    companion object {
+        const val SHORT_NAME = "org.domaframework.doma.intellij.validBindVariable"
+    }
 }
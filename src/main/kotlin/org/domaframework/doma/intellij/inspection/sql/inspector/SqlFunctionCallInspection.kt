@@ -24,7 +24,7 @@ import org.domaframework.doma.intellij.psi.SqlVisitor
 class SqlFunctionCallInspection : LocalInspectionTool() {
     override fun getDisplayName(): String = "Check function call"
 
-    override fun getShortName(): String = "org.domaframework.doma.intellij.functionCall"
+    override fun getShortName(): String = SHORT_NAME
 
     override fun getGroupDisplayName(): String = "DomaTools"
 
@@ -37,5 +37,9 @@ class SqlFunctionCallInspection : LocalInspectionTool() {
     override fun buildVisitor(
         holder: ProblemsHolder,
         isOnTheFly: Boolean,
-    ): SqlVisitor = SqlFunctionCallInspectionVisitor(holder, this.shortName)
+    ): SqlVisitor = SqlFunctionCallInspectionVisitor(holder)
+
+    companion object {
+        const val SHORT_NAME = "org.domaframework.doma.intellij.functionCall"
+    }
 }
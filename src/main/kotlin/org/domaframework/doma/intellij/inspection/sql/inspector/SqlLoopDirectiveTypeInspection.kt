@@ -24,7 +24,7 @@ import org.domaframework.doma.intellij.psi.SqlVisitor
 class SqlLoopDirectiveTypeInspection : LocalInspectionTool() {
     override fun getDisplayName(): String = "Check loop directive type"
 
-    override fun getShortName(): String = "org.domaframework.doma.intellij.loopDirectiveType"
+    override fun getShortName(): String = SHORT_NAME
 
     override fun getGroupDisplayName(): String = "DomaTools"
 
@@ -37,5 +37,9 @@ class SqlLoopDirectiveTypeInspection : LocalInspectionTool() {
     override fun buildVisitor(
         holder: ProblemsHolder,
         isOnTheFly: Boolean,
-    ): SqlVisitor = SqlLoopDirectiveTypeInspectionVisitor(holder, this.shortName)
+    ): SqlVisitor = SqlLoopDirectiveTypeInspectionVisitor(holder)
+
+    companion object {
+        const val SHORT_NAME = "org.domaframework.doma.intellij.loopDirectiveType"
+    }
 }
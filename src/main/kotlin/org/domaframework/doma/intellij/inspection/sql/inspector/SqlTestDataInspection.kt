@@ -27,7 +27,7 @@ import org.domaframework.doma.intellij.psi.SqlVisitor
 class SqlTestDataInspection : LocalInspectionTool() {
     override fun getDisplayName(): String = "Check test data presence"
 
-    override fun getShortName(): String = "org.domaframework.doma.intellij.existaftertestdata"
+    override fun getShortName(): String = SHORT_NAME
 
     override fun getGroupDisplayName(): String = "DomaTools"
 
@@ -40,5 +40,9 @@ class SqlTestDataInspection : LocalInspectionTool() {
     override fun buildVisitor(
         holder: ProblemsHolder,
         isOnTheFly: Boolean,
-    ): SqlVisitor = SqlTestDataInspectionVisitor(holder, this.shortName)
+    ): SqlVisitor = SqlTestDataInspectionVisitor(holder)
+
+    companion object {
+        const val SHORT_NAME = "org.domaframework.doma.intellij.existaftertestdata"
+    }
 }
@@ -15,7 +15,6 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
-import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiFile
 import com.intellij.psi.PsiMethod
@@ -27,8 +26,10 @@ import org.domaframework.doma.intellij.common.psi.PsiParentClass
 import org.domaframework.doma.intellij.common.sql.cleanString
 import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
 import org.domaframework.doma.intellij.common.validation.result.ValidationDaoParamResult
+import org.domaframework.doma.intellij.common.validation.result.ValidationResult
 import org.domaframework.doma.intellij.extension.expr.accessElements
 import org.domaframework.doma.intellij.extension.psi.findParameter
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElFieldAccessExpr
 import org.domaframework.doma.intellij.psi.SqlElIdExpr
 import org.domaframework.doma.intellij.psi.SqlElPrimaryExpr
@@ -36,33 +37,24 @@ import org.domaframework.doma.intellij.psi.SqlElPrimaryExpr
 class InspectionFieldAccessVisitorProcessor(
     val shortName: String,
     private val element: SqlElFieldAccessExpr,
+    private val daoMethod: PsiMethod? = findDaoMethod(element.containingFile),
+    private val forItemTypes: SqlFileAnalysis.ForItemTypes? = null,
 ) : InspectionVisitorProcessor() {
     private val project = element.project
     private var targetFile: PsiFile = element.containingFile
     private var blockElements: List<SqlElIdExpr> = emptyList()
     private var topElement: SqlElIdExpr? = null
-    private var daoMethod: PsiMethod? = findDaoMethod(targetFile)
     private var isBatchAnnotation = false
 
     /**
      * Check that the source of the bind variable in the SQL exists
      */
-    fun checkBindVariableDefine(holder: ProblemsHolder) {
+    fun validateBindVariableDefine(): ValidationResult? =
         when (val topElementClass = resolveTopElementType(targetFile)) {
-            is DummyPsiParentClass -> {
-                return
-            }
-
-            null -> {
-                handleNullTopElementClass(holder)
-                return
-            }
-
-            else -> {
-                checkFieldAccess(topElementClass, holder)
-            }
+            is DummyPsiParentClass -> null
+            null -> nullTopElementClassError()
+            else -> getFieldAccess(topElementClass)
         }
-    }
 
     /**
      * Get the final class type of the field access element
@@ -117,7 +109,7 @@ class InspectionFieldAccessVisitorProcessor(
         forItem: PsiElement,
     ): PsiParentClass? {
         val baseType =
-            ForDirectiveUtil.getForDirectiveItemClassType(project, forDirectiveBlocks, forItem)
+            getForDirectiveItemClassType(project, forDirectiveBlocks, forItem, forItemTypes)
                 ?: return DummyPsiParentClass()
 
         val specifiedType = ForDirectiveUtil.resolveForDirectiveItemClassTypeBySuffixElement(topElm.text)
@@ -133,22 +125,18 @@ class InspectionFieldAccessVisitorProcessor(
         method: PsiMethod,
     ): PsiParentClass? {
         val paramType = method.findParameter(cleanString(topElm.text))?.type ?: return null
-        isBatchAnnotation = PsiDaoMethod(project, method).daoType.isBatchAnnotation()
+        isBatchAnnotation = PsiDaoMethod.getInstance(method).daoType.isBatchAnnotation()
         return PsiParentClass(paramType)
     }
 
-    private fun handleNullTopElementClass(holder: ProblemsHolder) {
-        val topElm = topElement ?: return
-        val method = daoMethod ?: return
-        errorHighlight(topElm, method, holder)
-    }
-
-    private fun checkFieldAccess(
-        topElementClass: PsiParentClass,
-        holder: ProblemsHolder,
-    ) {
-        val result = getFieldAccess(topElementClass)
-        result?.highlightElement(holder)
+    private fun nullTopElementClassError(): ValidationResult? {
+        val topElm = topElement ?: return null
+        val method = daoMethod ?: return null
+        return ValidationDaoParamResult(
+            topElm,
+            method.name,
+            this.shortName,
+        )
     }
 
     private fun getFieldAccess(topElementClass: PsiParentClass) =
@@ -186,16 +174,4 @@ class InspectionFieldAccessVisitorProcessor(
 
         return accessElements.filterIsInstance<SqlElIdExpr>()
     }
-
-    private fun errorHighlight(
-        topElement: SqlElIdExpr,
-        daoMethod: PsiMethod,
-        holder: ProblemsHolder,
-    ) {
-        ValidationDaoParamResult(
-            topElement,
-            daoMethod.name,
-            this.shortName,
-        ).highlightElement(holder)
-    }
 }
@@ -15,27 +15,29 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
-import com.intellij.codeInspection.ProblemsHolder
 import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
 import org.domaframework.doma.intellij.common.validation.result.ValidationForDirectiveItemTypeResult
+import org.domaframework.doma.intellij.common.validation.result.ValidationResult
 import org.domaframework.doma.intellij.extension.psi.getForItem
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElForDirective
 
 class InspectionForDirectiveVisitorProcessor(
     val shortName: String,
     private val element: SqlElForDirective,
 ) : InspectionVisitorProcessor() {
-    fun check(holder: ProblemsHolder) {
-        val forItem = element.getForItem() ?: return
+    fun validate(forItemTypes: SqlFileAnalysis.ForItemTypes? = null): ValidationResult? {
+        val forItem = element.getForItem() ?: return null
         val directiveBlocks = ForDirectiveUtil.getForDirectiveBlocks(forItem, false)
         val declarationType =
-            ForDirectiveUtil.getForDirectiveItemClassType(element.project, directiveBlocks)
+            getForDirectiveItemClassType(element.project, directiveBlocks, null, forItemTypes)
 
         if (declarationType == null) {
-            ValidationForDirectiveItemTypeResult(
+            return ValidationForDirectiveItemTypeResult(
                 forItem,
                 this.shortName,
-            ).highlightElement(holder)
+            )
         }
+        return null
     }
 }
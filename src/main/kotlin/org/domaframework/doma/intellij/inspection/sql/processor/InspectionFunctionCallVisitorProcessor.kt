@@ -15,7 +15,6 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
-import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.openapi.module.ModuleUtilCore
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiMethod
@@ -35,10 +34,7 @@ class InspectionFunctionCallVisitorProcessor(
     val shortName: String,
     private val element: SqlElFunctionCallExpr,
 ) : InspectionVisitorProcessor() {
-    fun check(holder: ProblemsHolder) {
-        val result: ValidationResult? = getFunctionCallValidationResult()
-        result?.highlightElement(holder)
-    }
+    fun validate(): ValidationResult? = getFunctionCallValidationResult()
 
     fun getFunctionCallType(): PsiMethod? {
         val result = getFunctionCall()
@@ -15,16 +15,16 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
-import com.intellij.codeInspection.ProblemsHolder
-import com.intellij.psi.PsiFile
+import com.intellij.psi.PsiMethod
 import com.intellij.psi.util.PsiTreeUtil
-import org.domaframework.doma.intellij.common.dao.findDaoMethod
 import org.domaframework.doma.intellij.common.sql.cleanString
 import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
 import org.domaframework.doma.intellij.common.validation.result.ValidationDaoParamResult
 import org.domaframework.doma.intellij.common.validation.result.ValidationForDirectiveItemTypeResult
+import org.domaframework.doma.intellij.common.validation.result.ValidationResult
 import org.domaframework.doma.intellij.extension.psi.findParameter
 import org.domaframework.doma.intellij.extension.psi.getForItem
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElForDirective
 import org.domaframework.doma.intellij.psi.SqlElPrimaryExpr
 import org.domaframework.doma.intellij.psi.SqlElStaticFieldAccessExpr
@@ -33,12 +33,12 @@ class InspectionPrimaryVisitorProcessor(
     val shortName: String,
     private val element: SqlElPrimaryExpr,
 ) : InspectionVisitorProcessor() {
-    fun check(
-        holder: ProblemsHolder,
-        file: PsiFile,
-    ) {
-        if (isLiteralOrStatic(element)) return
-        PsiTreeUtil.getParentOfType(element, SqlElStaticFieldAccessExpr::class.java)?.let { return }
+    fun validate(
+        daoMethod: PsiMethod?,
+        forItemTypes: SqlFileAnalysis.ForItemTypes? = null,
+    ): ValidationResult? {
+        if (isLiteralOrStatic(element)) return null
+        PsiTreeUtil.getParentOfType(element, SqlElStaticFieldAccessExpr::class.java)?.let { return null }
 
         val forDirectiveExp = PsiTreeUtil.getParentOfType(element, SqlElForDirective::class.java)
         val isSkip = forDirectiveExp != null && forDirectiveExp.getForItem() != element
@@ -50,32 +50,33 @@ class InspectionPrimaryVisitorProcessor(
                 skipSelf = isSkip,
                 forDirectives = forDirectiveBlocks,
             )
-        if (forDirectiveExp?.getForItem() == element) return
+        if (forDirectiveExp?.getForItem() == element) return null
 
         if (forItem != null) {
             val forDeclarationType =
-                ForDirectiveUtil.getForDirectiveItemClassType(
+                getForDirectiveItemClassType(
                     element.project,
                     forDirectiveBlocks,
                     forItem,
+                    forItemTypes,
                 )
             if (forDeclarationType == null) {
-                ValidationForDirectiveItemTypeResult(
+                return ValidationForDirectiveItemTypeResult(
                     element,
                     this.shortName,
-                ).highlightElement(holder)
+                )
             }
-            return
+            return null
         }
 
-        val daoMethod = findDaoMethod(file) ?: return
+        if (daoMethod == null) return null
         val param = daoMethod.findParameter(cleanString(element.text))
-        if (param != null) return
+        if (param != null) return null
 
-        ValidationDaoParamResult(
+        return ValidationDaoParamResult(
             element,
             daoMethod.name,
             this.shortName,
-        ).highlightElement(holder)
+        )
     }
 }
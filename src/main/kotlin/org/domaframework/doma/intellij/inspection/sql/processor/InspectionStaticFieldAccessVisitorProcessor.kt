@@ -15,7 +15,6 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
-import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.psi.PsiClass
 import com.intellij.psi.PsiType
 import org.domaframework.doma.intellij.common.psi.DummyPsiParentClass
@@ -35,38 +34,32 @@ class InspectionStaticFieldAccessVisitorProcessor(
     /**
      * Check for existence of static field
      */
-    fun checkBindVariableDefine(
-        staticAccessor: SqlElStaticFieldAccessExpr,
-        holder: ProblemsHolder,
-    ) {
+    fun validateBindVariableDefine(staticAccessor: SqlElStaticFieldAccessExpr): ValidationResult? {
         val referenceClass =
             resolveReferenceClass(staticAccessor)
-        if (referenceClass == null) {
-            highlightClassPathError(staticAccessor, holder)
-            return
-        }
+                ?: return ValidationClassPathResult(
+                    staticAccessor.elClass,
+                    shortName,
+                )
 
         val topParentClass =
             resolveTopParentClass(staticAccessor, referenceClass, shortName)
-        when (topParentClass.first) {
+        return when (topParentClass.first) {
             is DummyPsiParentClass -> {
                 if (topParentClass.second is ValidationPropertyResult) {
-                    highlightPropertyNotFoundError(staticAccessor, holder)
+                    propertyNotFoundError(staticAccessor)
                 } else {
-                    topParentClass.second?.highlightElement(holder)
+                    topParentClass.second
                 }
-                return
             }
 
             null -> {
-                highlightPropertyNotFoundError(staticAccessor, holder)
-                return
+                propertyNotFoundError(staticAccessor)
             }
 
             else -> {
-                val parent: PsiParentClass = topParentClass.first ?: return
-                val result = checkFieldAccessValidity(staticAccessor, parent)
-                result?.highlightElement(holder)
+                val parent: PsiParentClass = topParentClass.first ?: return null
+                checkFieldAccessValidity(staticAccessor, parent)
             }
         }
     }
@@ -83,16 +76,6 @@ class InspectionStaticFieldAccessVisitorProcessor(
         return referenceClass
     }
 
-    private fun highlightClassPathError(
-        staticAccessor: SqlElStaticFieldAccessExpr,
-        holder: ProblemsHolder,
-    ) {
-        ValidationClassPathResult(
-            staticAccessor.elClass,
-            shortName,
-        ).highlightElement(holder)
-    }
-
     private fun resolveTopParentClass(
         staticAccessor: SqlElStaticFieldAccessExpr,
         referenceClass: PsiClass,
@@ -113,19 +96,14 @@ class InspectionStaticFieldAccessVisitorProcessor(
         return Pair(topParentClass?.parent, result)
     }
 
-    private fun highlightPropertyNotFoundError(
-        staticAccessor: SqlElStaticFieldAccessExpr,
-        holder: ProblemsHolder,
-    ) {
-        val blockElements = staticAccessor.accessElements
-        blockElements.firstOrNull()?.let { firstElement ->
+    private fun propertyNotFoundError(staticAccessor: SqlElStaticFieldAccessExpr): ValidationResult? =
+        staticAccessor.accessElements.firstOrNull()?.let { firstElement ->
             ValidationNotFoundStaticPropertyResult(
                 firstElement,
                 staticAccessor.elClass.text,
                 shortName,
-            ).highlightElement(holder)
+            )
         }
-    }
 
     /**
      * Get the final class type of the static field access element
@@ -15,8 +15,12 @@
  */
 package org.domaframework.doma.intellij.inspection.sql.processor
 
+import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiElement
 import com.intellij.psi.util.elementType
+import org.domaframework.doma.intellij.common.psi.PsiParentClass
+import org.domaframework.doma.intellij.common.util.ForDirectiveUtil
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElNewExpr
 import org.domaframework.doma.intellij.psi.SqlTypes
 
@@ -31,4 +35,19 @@ abstract class InspectionVisitorProcessor {
                 targetElement.firstChild is SqlElNewExpr ||
                 targetElement.text.startsWith("@")
         )
+
+    /**
+     * Resolve the type of a for item, through the file analysis memo when one is given
+     */
+    protected fun getForDirectiveItemClassType(
+        project: Project,
+        forDirectiveBlocks: List<ForDirectiveUtil.BlockToken>,
+        targetForItem: PsiElement?,
+        forItemTypes: SqlFileAnalysis.ForItemTypes?,
+    ): PsiParentClass? =
+        if (forItemTypes != null) {
+            forItemTypes.getForDirectiveItemClassType(forDirectiveBlocks, targetForItem)
+        } else {
+            ForDirectiveUtil.getForDirectiveItemClassType(project, forDirectiveBlocks, targetForItem)
+        }
 }
@@ -18,21 +18,15 @@ package org.domaframework.doma.intellij.inspection.sql.visitor
 import com.intellij.codeInspection.ProblemsHolder
 import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiLiteralExpression
-import com.intellij.psi.util.elementType
 import org.domaframework.doma.intellij.common.isJavaOrKotlinFileType
 import org.domaframework.doma.intellij.common.util.InjectionSqlUtil.isInjectedSqlFile
-import org.domaframework.doma.intellij.extension.psi.isFirstElement
-import org.domaframework.doma.intellij.inspection.sql.processor.InspectionFieldAccessVisitorProcessor
-import org.domaframework.doma.intellij.inspection.sql.processor.InspectionPrimaryVisitorProcessor
-import org.domaframework.doma.intellij.inspection.sql.processor.InspectionStaticFieldAccessVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElFieldAccessExpr
 import org.domaframework.doma.intellij.psi.SqlElPrimaryExpr
 import org.domaframework.doma.intellij.psi.SqlElStaticFieldAccessExpr
-import org.domaframework.doma.intellij.psi.SqlTypes
 
 class SqlBindVariableInspectionVisitor(
     private val holder: ProblemsHolder,
-    private val shortName: String,
 ) : SqlVisitorBase() {
     override fun visitElement(element: PsiElement) {
         val file = element.containingFile ?: return
@@ -48,21 +42,23 @@ class SqlBindVariableInspectionVisitor(
 
     override fun visitElStaticFieldAccessExpr(element: SqlElStaticFieldAccessExpr) {
         super.visitElStaticFieldAccessExpr(element)
-        val processor = InspectionStaticFieldAccessVisitorProcessor(this.shortName)
-        processor.checkBindVariableDefine(element, holder)
+        highlightBindVariable(element)
     }
 
     override fun visitElFieldAccessExpr(element: SqlElFieldAccessExpr) {
         super.visitElFieldAccessExpr(element)
-        val processor = InspectionFieldAccessVisitorProcessor(shortName, element)
-        processor.checkBindVariableDefine(holder)
+        highlightBindVariable(element)
     }
 
     override fun visitElPrimaryExpr(element: SqlElPrimaryExpr) {
-        val file = element.containingFile ?: return
-        if (!element.isFirstElement() || element.prevSibling?.elementType == SqlTypes.AT_SIGN) return
+        highlightBindVariable(element)
+    }
 
-        val processor = InspectionPrimaryVisitorProcessor(this.shortName, element)
-        processor.check(holder, file)
+    private fun highlightBindVariable(element: PsiElement) {
+        val file = element.containingFile ?: return
+        SqlFileAnalysis
+            .getInstance(file)
+            .getBindVariableResult(element)
+            ?.highlightElement(holder)
     }
 }
@@ -20,12 +20,11 @@ import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiLiteralExpression
 import org.domaframework.doma.intellij.common.isJavaOrKotlinFileType
 import org.domaframework.doma.intellij.common.util.InjectionSqlUtil.isInjectedSqlFile
-import org.domaframework.doma.intellij.inspection.sql.processor.InspectionFunctionCallVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElFunctionCallExpr
 
 class SqlFunctionCallInspectionVisitor(
     private val holder: ProblemsHolder,
-    private val shortName: String,
 ) : SqlVisitorBase() {
     override fun visitElement(element: PsiElement) {
         val file = element.containingFile ?: return
@@ -41,7 +40,10 @@ class SqlFunctionCallInspectionVisitor(
 
     override fun visitElFunctionCallExpr(element: SqlElFunctionCallExpr) {
         super.visitElFunctionCallExpr(element)
-        val processor = InspectionFunctionCallVisitorProcessor(this.shortName, element)
-        processor.check(holder)
+        val file = element.containingFile ?: return
+        SqlFileAnalysis
+            .getInstance(file)
+            .getFunctionCallResult(element)
+            ?.highlightElement(holder)
     }
 }
@@ -20,12 +20,11 @@ import com.intellij.psi.PsiElement
 import com.intellij.psi.PsiLiteralExpression
 import org.domaframework.doma.intellij.common.isJavaOrKotlinFileType
 import org.domaframework.doma.intellij.common.util.InjectionSqlUtil.isInjectedSqlFile
-import org.domaframework.doma.intellij.inspection.sql.processor.InspectionForDirectiveVisitorProcessor
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
 import org.domaframework.doma.intellij.psi.SqlElForDirective
 
 class SqlLoopDirectiveTypeInspectionVisitor(
     private val holder: ProblemsHolder,
-    private val shortName: String,
 ) : SqlVisitorBase() {
     override fun visitElement(element: PsiElement) {
         val file = element.containingFile ?: return
@@ -41,7 +40,10 @@ class SqlLoopDirectiveTypeInspectionVisitor(
 
     override fun visitElForDirective(element: SqlElForDirective) {
         super.visitElForDirective(element)
-        val process = InspectionForDirectiveVisitorProcessor(shortName, element)
-        process.check(holder)
+        val file = element.containingFile ?: return
+        SqlFileAnalysis
+            .getInstance(file)
+            .getLoopDirectiveResult(element)
+            ?.highlightElement(holder)
     }
 }
@@ -31,7 +31,7 @@ class DaoMethodRenameProcessor : RenameJavaMethodProcessor() {
     // Target classes with @Select and no @Sql, or with sqlFile=true
     override fun canProcessElement(element: PsiElement): Boolean {
         if (super.canProcessElement(element) && element is PsiMethod) {
-            val psiDaoMethod = PsiDaoMethod(element.project, element)
+            val psiDaoMethod = PsiDaoMethod.getInstance(element)
             return psiDaoMethod.isUseSqlFileMethod()
         }
         return false
@@ -47,7 +47,7 @@ class DaoMethodRenameProcessor : RenameJavaMethodProcessor() {
         CommonPathParameterUtil.clearCache()
         val startTime = System.nanoTime()
         if (element is PsiMethod) {
-            val psiDaoMethod = PsiDaoMethod(element.project, element)
+            val psiDaoMethod = PsiDaoMethod.getInstance(element)
             val sqlExtension = psiDaoMethod.daoType.extension
             val sqlFile = psiDaoMethod.sqlFile
             if (sqlFile != null) {
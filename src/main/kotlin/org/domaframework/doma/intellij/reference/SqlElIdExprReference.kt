@@ -89,7 +89,7 @@ class SqlElIdExprReference(
             val daoMethod = findDaoMethod(file) ?: return null
             val param = daoMethod.findParameter(topElm.text) ?: return null
             parentClass = PsiParentClass(param.type)
-            isBatchAnnotation = PsiDaoMethod(topElm.project, daoMethod).daoType.isBatchAnnotation()
+            isBatchAnnotation = PsiDaoMethod.getInstance(daoMethod).daoType.isBatchAnnotation()
         }
 
         val result =
@@ -0,0 +1,51 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.setting
+
+import com.intellij.openapi.options.Configurable
+import com.intellij.openapi.options.ConfigurationException
+import com.intellij.openapi.project.Project
+import org.domaframework.doma.intellij.bundle.SettingMessageBundle
+import org.domaframework.doma.intellij.setting.state.DomaToolsSqlDialectSettings
+import javax.swing.JComponent
+
+class DomaToolsSqlDialectConfigurable(
+    project: Project,
+) : Configurable {
+    private var mySettingsComponent: SqlDialectSettingComponent? = SqlDialectSettingComponent()
+
+    private val dialectSettings: DomaToolsSqlDialectSettings = DomaToolsSqlDialectSettings.getInstance(project)
+
+    override fun getDisplayName(): String =
+        SettingMessageBundle.message("projectConfigurable.DomaToolsSqlDialectConfigurable.displayName")
+
+    override fun createComponent(): JComponent? = mySettingsComponent?.panel
+
+    override fun isModified(): Boolean = dialectSettings.isModified(mySettingsComponent)
+
+    @Throws(ConfigurationException::class)
+    override fun apply() {
+        dialectSettings.apply(mySettingsComponent)
+    }
+
+    override fun reset() {
+        dialectSettings.reset(mySettingsComponent)
+    }
+
+    override fun disposeUIResources() {
+        mySettingsComponent = null
+    }
+}
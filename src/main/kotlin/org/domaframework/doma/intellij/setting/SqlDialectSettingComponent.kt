@@ -0,0 +1,72 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.setting
+
+import com.intellij.openapi.ui.ComboBox
+import com.intellij.ui.components.JBLabel
+import com.intellij.ui.components.JBTextField
+import com.intellij.util.ui.FormBuilder
+import org.domaframework.doma.intellij.bundle.MessageBundle
+import org.domaframework.doma.intellij.tokens.SqlDialect
+import javax.swing.JPanel
+
+class SqlDialectSettingComponent {
+    val panel: JPanel?
+    private val dialectComboBox = ComboBox(SqlDialect.entries.toTypedArray())
+    private val customKeywordsField = JBTextField()
+    private val customFunctionsField = JBTextField()
+
+    init {
+        this.panel =
+            FormBuilder
+                .createFormBuilder()
+                .addLabeledComponent(
+                    JBLabel(MessageBundle.message("config.sql.dialect")),
+                    dialectComboBox,
+                    1,
+                    false,
+                ).addLabeledComponent(
+                    JBLabel(MessageBundle.message("config.sql.custom.keywords")),
+                    customKeywordsField,
+                    1,
+                    false,
+                ).addLabeledComponent(
+                    JBLabel(MessageBundle.message("config.sql.custom.functions")),
+                    customFunctionsField,
+                    1,
+                    false,
+                ).addComponentFillVertically(JPanel(), 0)
+                .panel
+    }
+
+    var dialect: SqlDialect
+        get() = dialectComboBox.item ?: SqlDialect.ALL
+        set(dialect) {
+            dialectComboBox.item = dialect
+        }
+
+    var customKeywords: String
+        get() = customKeywordsField.text
+        set(keywords) {
+            customKeywordsField.text = keywords
+        }
+
+    var customFunctions: String
+        get() = customFunctionsField.text
+        set(functions) {
+            customFunctionsField.text = functions
+        }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.setting.state
+
+import com.intellij.openapi.components.BaseState
+import com.intellij.openapi.components.PersistentStateComponent
+import com.intellij.openapi.components.Service
+import com.intellij.openapi.components.State
+import com.intellij.openapi.components.Storage
+import com.intellij.openapi.project.Project
+import com.intellij.util.FileContentUtil
+import org.domaframework.doma.intellij.SqlTokenHelper
+import org.domaframework.doma.intellij.SqlTokenTable
+import org.domaframework.doma.intellij.setting.SqlDialectSettingComponent
+import org.domaframework.doma.intellij.tokens.SqlDialect
+
+/**
+ * Project level SQL dialect and user defined words used by the SQL lexer.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+    name = "DomaToolsSqlDialectSettings",
+    storages = [Storage("doma_tools_settings.xml")],
+)
+class DomaToolsSqlDialectSettings : PersistentStateComponent<DomaToolsSqlDialectSettings.State> {
+    class State : BaseState() {
+        var dialect = SqlDialect.ALL.name
+        var customKeywords = ""
+        var customFunctions = ""
+    }
+
+    var myState: State = State()
+
+    /**
+     * Immutable word table built once from the current state and shared by every lexer of the project
+     */
+    @Volatile
+    private var cachedTokenTable: SqlTokenTable? = null
+
+    val tokenTable: SqlTokenTable
+        get() = cachedTokenTable ?: createTokenTable().also { cachedTokenTable = it }
+
+    override fun getState(): State = myState
+
+    override fun loadState(state: DomaToolsSqlDialectSettings.State) {
+        myState = state
+        cachedTokenTable = null
+    }
+
+    fun isModified(component: SqlDialectSettingComponent?): Boolean {
+        if (component == null) return false
+        return myState.dialect != component.dialect.name ||
+            myState.customKeywords != component.customKeywords ||
+            myState.customFunctions != component.customFunctions
+    }
+
+    fun apply(component: SqlDialectSettingComponent?) {
+        if (component == null) return
+        myState.dialect = component.dialect.name
+        myState.customKeywords = component.customKeywords
+        myState.customFunctions = component.customFunctions
+        cachedTokenTable = null
+        // Re-lex the open SQL files with the new word table
+        FileContentUtil.reparseOpenedFiles()
+    }
+
+    fun reset(component: SqlDialectSettingComponent?) {
+        component?.dialect = SqlDialect.fromName(myState.dialect)
+        component?.customKeywords = myState.customKeywords
+        component?.customFunctions = myState.customFunctions
+    }
+
+    private fun createTokenTable(): SqlTokenTable {
+        val dialect = SqlDialect.fromName(myState.dialect)
+        val customKeywords = splitWords(myState.customKeywords)
+        val customFunctions = splitWords(myState.customFunctions)
+        if (dialect == SqlDialect.ALL && customKeywords.isEmpty() && customFunctions.isEmpty()) {
+            return SqlTokenHelper.getDefaultTokenTable()
+        }
+        return SqlTokenHelper.createTokenTable(dialect, customKeywords, customFunctions)
+    }
+
+    private fun splitWords(text: String): List<String> =
+        text
+            .split(',', ' ', '\n', '\t')
+            .map { it.trim() }
+            .filter { it.isNotEmpty() }
+
+    companion object {
+        fun getInstance(project: Project): DomaToolsSqlDialectSettings = project.getService(DomaToolsSqlDialectSettings::class.java)
+
+        /**
+         * Get the word table of the project.
+         * Falls back to the default table when no project is available, such as in the color settings preview.
+         */
+        @JvmStatic
+        fun findTokenTable(project: Project?): SqlTokenTable {
+            if (project == null || project.isDisposed) return SqlTokenHelper.getDefaultTokenTable()
+            val settings: DomaToolsSqlDialectSettings? = project.getService(DomaToolsSqlDialectSettings::class.java)
+            return settings?.tokenTable ?: SqlTokenHelper.getDefaultTokenTable()
+        }
+    }
+}
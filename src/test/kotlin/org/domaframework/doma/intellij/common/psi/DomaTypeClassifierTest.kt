@@ -0,0 +1,75 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.testFramework.DumbModeTestUtils
+import org.domaframework.doma.intellij.DomaSqlTest
+
+/**
+ * Test for the Doma roles of project classes
+ */
+class DomaTypeClassifierTest : DomaSqlTest() {
+    private val classes =
+        mapOf(
+            "RoleEntity" to "@Entity public class RoleEntity { Integer id; }",
+            "RoleImmutableEntity" to "@Entity(immutable = true) public class RoleImmutableEntity { final Integer id = 0; }",
+            "RoleRecordEntity" to "@Entity public record RoleRecordEntity(Integer id) {}",
+            "RoleDomain" to "@Domain(valueType = String.class) public class RoleDomain { public String getValue() { return null; } }",
+            "RoleEmbeddable" to "@Embeddable public class RoleEmbeddable { String city; }",
+            "RoleDataType" to "@DataType public record RoleDataType(String value) {}",
+            "RolePlain" to "public class RolePlain {}",
+        )
+
+    override fun setUp() {
+        super.setUp()
+        classes.values.forEach { source ->
+            myFixture.addClass("package doma.example.role;\n\nimport org.seasar.doma.*;\n\n$source")
+        }
+    }
+
+    fun testEntityRoles() {
+        assertEquals(DomaTypeClassifier.ENTITY, getRoles("RoleEntity"))
+        assertEquals(DomaTypeClassifier.ENTITY or DomaTypeClassifier.IMMUTABLE_ENTITY, getRoles("RoleImmutableEntity"))
+        assertEquals(DomaTypeClassifier.ENTITY or DomaTypeClassifier.IMMUTABLE_ENTITY, getRoles("RoleRecordEntity"))
+    }
+
+    fun testValueRoles() {
+        assertEquals(DomaTypeClassifier.DOMAIN, getRoles("RoleDomain"))
+        assertEquals(DomaTypeClassifier.EMBEDDABLE, getRoles("RoleEmbeddable"))
+        assertEquals(DomaTypeClassifier.DATA_TYPE, getRoles("RoleDataType"))
+        assertEquals(DomaTypeClassifier.NONE, getRoles("RolePlain"))
+        assertEquals(DomaTypeClassifier.NONE, DomaTypeClassifier.getInstance(project).getRoles("doma.example.role.Missing"))
+    }
+
+    fun testHasAnyRole() {
+        val classifier = DomaTypeClassifier.getInstance(project)
+
+        assertTrue(classifier.hasAnyRole("doma.example.role.RoleDomain", DomaTypeClassifier.DOMAIN or DomaTypeClassifier.DATA_TYPE))
+        assertFalse(classifier.hasAnyRole("doma.example.role.RoleEntity", DomaTypeClassifier.IMMUTABLE_ENTITY))
+    }
+
+    fun testDumbModeMatchesIndexedRoles() {
+        val indexed = classes.keys.associateWith { getRoles(it) }
+
+        val dumb = mutableMapOf<String, Int>()
+        DumbModeTestUtils.runInDumbModeSynchronously(project) {
+            classes.keys.forEach { dumb[it] = getRoles(it) }
+        }
+        assertEquals(indexed, dumb)
+    }
+
+    private fun getRoles(simpleName: String): Int = DomaTypeClassifier.getInstance(project).getRoles("doma.example.role.$simpleName")
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.common.psi
+
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.psi.PsiClass
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiModifier
+import org.domaframework.doma.intellij.DomaSqlTest
+
+/**
+ * Test for the name index of class members used by completion and resolution
+ */
+class PsiClassMemberTableTest : DomaSqlTest() {
+    private lateinit var childClass: PsiClass
+
+    override fun setUp() {
+        super.setUp()
+        myFixture.addClass(
+            """
+            package doma.example.member;
+
+            public class BaseMembers {
+              public String baseName;
+              private int baseCount;
+
+              public String getBaseName() { return baseName; }
+
+              public void update(String name) {}
+            }
+            """.trimIndent(),
+        )
+        childClass =
+            myFixture.addClass(
+                """
+                package doma.example.member;
+
+                public class ChildMembers extends BaseMembers {
+                  public static final String STATIC_NAME = "static";
+                  public String childName;
+
+                  public void update(String name, int count) {}
+
+                  public static ChildMembers create() { return new ChildMembers(); }
+
+                  private void hidden() {}
+                }
+                """.trimIndent(),
+            )
+    }
+
+    fun testSearchFieldsByPrefix() {
+        val table = PsiClassMemberTable.getInstance(childClass)
+
+        assertEquals(listOf("baseCount", "baseName"), table.searchFields("base").map { it.name })
+        assertEquals(listOf("childName"), table.searchFields("child").map { it.name })
+        assertEquals(
+            listOf("STATIC_NAME", "baseCount", "baseName", "childName"),
+            table.searchFields("").map { it.name },
+        )
+        assertEmpty(table.searchFields("unknown"))
+        assertEquals(listOf("STATIC_NAME"), table.searchStaticFields("").map { it.name })
+    }
+
+    fun testInheritedMembers() {
+        val table = PsiClassMemberTable.getInstance(childClass)
+
+        assertEquals("BaseMembers", table.findField("baseName")?.containingClass?.name)
+        assertEquals("BaseMembers", table.findMethods("getBaseName").single().containingClass?.name)
+        // Methods of Object are inherited as well
+        val getters = table.searchMethods("get").map { it.name }
+        assertContainsElements(getters, "getBaseName", "getClass")
+        assertTrue(getters.all { it.startsWith("get") })
+    }
+
+    fun testOverloadedMethods() {
+        val table = PsiClassMemberTable.getInstance(childClass)
+
+        val updates = table.findMethods("update")
+        assertEquals(2, updates.size)
+        assertSameElements(updates.map { it.parameterList.parametersCount }, 1, 2)
+        assertEmpty(table.findMethods("hidden"))
+        assertEquals("create", table.findStaticMethods("create").single().name)
+        assertEmpty(table.searchStaticMethods("update"))
+    }
+
+    fun testJdkClassFieldsArePublicOnly() {
+        val stringClass = myFixture.findClass("java.lang.String")
+        val fields = PsiClassMemberTable.getInstance(stringClass).searchFields("")
+
+        assertNotEmpty(fields)
+        assertTrue(fields.all { it.hasModifierProperty(PsiModifier.PUBLIC) })
+    }
+
+    fun testRebuiltAfterJavaEdit() {
+        val table = PsiClassMemberTable.getInstance(childClass)
+        assertSame(table, PsiClassMemberTable.getInstance(childClass))
+
+        val document = PsiDocumentManager.getInstance(project).getDocument(childClass.containingFile)
+        assertNotNull(document)
+        WriteCommandAction.runWriteCommandAction(project) {
+            val offset = document!!.text.indexOf("childName")
+            document.replaceString(offset, offset + "childName".length, "childTitle")
+            PsiDocumentManager.getInstance(project).commitDocument(document)
+        }
+
+        val rebuilt = PsiClassMemberTable.getInstance(myFixture.findClass("doma.example.member.ChildMembers"))
+        assertNotSame(table, rebuilt)
+        assertEquals(listOf("childTitle"), rebuilt.searchFields("child").map { it.name })
+    }
+}
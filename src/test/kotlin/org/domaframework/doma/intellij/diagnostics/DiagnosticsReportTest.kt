@@ -0,0 +1,55 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.diagnostics
+
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+
+/**
+ * Test for the diagnostics report built from the recorded timings and cache counters
+ */
+class DiagnosticsReportTest : DomaSqlTest() {
+    fun testReport() {
+        val start = System.nanoTime() - 2_000_000
+        repeat(10) {
+            PluginLoggerUtil.countLogging("DiagnosticsReportTest", "Report", "Test", start)
+        }
+        PluginLoggerUtil.countCacheLookup("DiagnosticsReportTestCache", true)
+        PluginLoggerUtil.countCacheLookup("DiagnosticsReportTestCache", true)
+        PluginLoggerUtil.countCacheLookup("DiagnosticsReportTestCache", true)
+        PluginLoggerUtil.countCacheLookup("DiagnosticsReportTestCache", false)
+
+        val report = DiagnosticsReport.create()
+
+        val operation = report.operations.find { it.className == "DiagnosticsReportTest" }
+        assertNotNull("Not Found Operation", operation)
+        assertEquals("Test", operation!!.inputName)
+        assertEquals("Report", operation.actionName)
+        assertEquals(10L, operation.count)
+        assertTrue(operation.p50 >= 1.8F)
+        assertTrue(operation.p50 <= operation.p95 && operation.p95 <= operation.p99 && operation.p99 <= operation.max)
+
+        val cache = report.caches.find { it.cacheName == "DiagnosticsReportTestCache" }
+        assertNotNull("Not Found Cache", cache)
+        assertEquals(3L, cache!!.hits)
+        assertEquals(1L, cache.misses)
+        assertEquals(0.75, cache.hitRatio)
+
+        val json = report.toJson()
+        assertTrue(json.contains("\"actionName\": \"Report\""))
+        assertTrue(json.contains("\"cacheName\": \"DiagnosticsReportTestCache\""))
+    }
+}
@@ -16,6 +16,7 @@
 package org.domaframework.doma.intellij.formatter
 
 import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.util.TextRange
 import com.intellij.psi.codeStyle.CodeStyleManager
 import com.intellij.testFramework.fixtures.BasePlatformTestCase
 import org.domaframework.doma.intellij.setting.SettingComponent
@@ -307,6 +308,28 @@ class SqlFormatterTest : BasePlatformTestCase() {
         formatSqlFile("BlockCommentParse.sql", "BlockCommentParse$formatDataPrefix.sql")
     }
 
+    fun testFormatRangeKeepsOtherStatements() {
+        val firstStatement = "DROP TABLE \nIF EXISTS departments ;"
+        val targetStatement = "DROP TABLE \nIF EXISTS employees ;"
+        val lastStatement = "DROP TABLE \nIF EXISTS projects ;"
+        myFixture.configureByText("MultiStatement.sql", "$firstStatement\n$targetStatement\n$lastStatement")
+        val currentFile = myFixture.file
+        val targetStart = currentFile.text.indexOf(targetStatement)
+        WriteCommandAction
+            .writeCommandAction(project)
+            .run<RuntimeException?> {
+                CodeStyleManager.getInstance(project).reformatText(
+                    currentFile,
+                    arrayListOf(TextRange(targetStart, targetStart + targetStatement.length)),
+                )
+            }
+
+        val formattedText = myFixture.editor.document.text
+        assertTrue(formattedText.startsWith("$firstStatement\n"))
+        assertTrue(formattedText.endsWith("\n$lastStatement"))
+        assertTrue(formattedText.contains("DROP TABLE IF EXISTS employees ;"))
+    }
+
     private fun formatSqlFile(
         beforeFile: String,
         afterFile: String,
@@ -0,0 +1,51 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.formatter
+
+import com.intellij.testFramework.UsefulTestCase
+import org.domaframework.doma.intellij.formatter.util.IndentType
+import org.domaframework.doma.intellij.formatter.util.SqlKeywordUtil
+
+class SqlKeywordUtilTest : UsefulTestCase() {
+    fun testKeywordIdIgnoresCase() {
+        val id = SqlKeywordUtil.getKeywordId("select")
+        assertTrue(id != SqlKeywordUtil.UNKNOWN_KEYWORD_ID)
+        assertEquals(id, SqlKeywordUtil.getKeywordId("SELECT"))
+        assertEquals(id, SqlKeywordUtil.getKeywordId("Select"))
+        assertEquals(SqlKeywordUtil.UNKNOWN_KEYWORD_ID, SqlKeywordUtil.getKeywordId("employee"))
+    }
+
+    fun testClassifyById() {
+        assertTrue(SqlKeywordUtil.isTopKeyword(SqlKeywordUtil.getKeywordId("Update")))
+        assertTrue(SqlKeywordUtil.isSecondKeyword("WHERE"))
+        assertFalse(SqlKeywordUtil.isSecondKeyword(SqlKeywordUtil.UNKNOWN_KEYWORD_ID))
+        assertEquals(IndentType.JOIN, SqlKeywordUtil.getIndentType("LEFT"))
+        assertEquals(IndentType.COMMA, SqlKeywordUtil.getIndentType(","))
+        assertEquals(IndentType.NONE, SqlKeywordUtil.getIndentType("employee"))
+    }
+
+    fun testSetLineKeyword() {
+        assertTrue(SqlKeywordUtil.isSetLineKeyword("BY", "order"))
+        assertTrue(
+            SqlKeywordUtil.isSetLineKeyword(
+                SqlKeywordUtil.getKeywordId("from"),
+                SqlKeywordUtil.getKeywordId("Year"),
+            ),
+        )
+        assertFalse(SqlKeywordUtil.isSetLineKeyword("by", "select"))
+        assertFalse(SqlKeywordUtil.isSetLineKeyword("limit", "order"))
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.formatter
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase
+import org.domaframework.doma.intellij.formatter.indent.SqlLineIndentProvider
+import org.domaframework.doma.intellij.setting.SettingComponent
+import org.domaframework.doma.intellij.setting.SqlLanguage
+import org.domaframework.doma.intellij.setting.state.DomaToolsFormatEnableSettings
+
+class SqlLineIndentProviderTest : BasePlatformTestCase() {
+    private val provider = SqlLineIndentProvider()
+
+    override fun setUp() {
+        super.setUp()
+        settingSqlFormat(true)
+    }
+
+    override fun tearDown() {
+        try {
+            settingSqlFormat(false)
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    private fun settingSqlFormat(enabled: Boolean) {
+        val component = SettingComponent()
+        component.enableFormat = enabled
+        DomaToolsFormatEnableSettings.getInstance().apply(component)
+    }
+
+    fun testAfterKeywordLine() {
+        assertEquals("       ", getLineIndent("SELECT e.id\n<caret>"))
+    }
+
+    fun testInsideOpenParenthesis() {
+        assertEquals(" ".repeat(16), getLineIndent("SELECT COALESCE(e.name\n<caret>"))
+    }
+
+    fun testInsideOpenDirective() {
+        val sql =
+            """
+            SELECT *
+              FROM employee e
+             WHERE e.id = 1
+               /*%if name != null */
+            <caret>
+            """.trimIndent()
+        assertEquals("   ", getLineIndent(sql))
+    }
+
+    fun testAfterClosedDirective() {
+        val sql =
+            """
+            SELECT *
+             WHERE e.id = 1
+              /*%if name != null */
+              AND e.name = /* name */'a'
+              /*%end*/
+            <caret>
+            """.trimIndent()
+        assertEquals("  ", getLineIndent(sql))
+    }
+
+    fun testSkipCommentLine() {
+        val sql =
+            """
+            SELECT e.id
+                   , e.name
+            -- comment
+            <caret>
+            """.trimIndent()
+        assertEquals("       ", getLineIndent(sql))
+    }
+
+    fun testAfterStatementEnd() {
+        assertEquals("", getLineIndent("SELECT 1;\n<caret>"))
+    }
+
+    fun testFormatDisabled() {
+        settingSqlFormat(false)
+        assertNull(getLineIndent("SELECT e.id\n<caret>"))
+    }
+
+    fun testInjectedSqlTemplate() {
+        val textBlock = "\"\"\""
+        val dao =
+            """
+            interface EmployeeDao {
+                @Sql($textBlock
+                    SELECT e.id
+                      FROM employee e
+                    <caret>
+                    $textBlock)
+                Employee selectById(Integer id);
+            }
+            """.trimIndent()
+        myFixture.configureByText("EmployeeDao.java", dao)
+        assertNull(provider.getLineIndent(project, myFixture.editor, SqlLanguage.INSTANCE, myFixture.caretOffset))
+    }
+
+    private fun getLineIndent(sql: String): String? {
+        myFixture.configureByText("LineIndent.sql", sql)
+        return provider.getLineIndent(project, myFixture.editor, SqlLanguage.INSTANCE, myFixture.caretOffset)
+    }
+}
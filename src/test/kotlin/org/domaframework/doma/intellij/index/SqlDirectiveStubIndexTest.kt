@@ -0,0 +1,75 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.index
+
+import com.intellij.psi.search.GlobalSearchScope
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.extension.findFile
+import org.domaframework.doma.intellij.psi.SqlFileStubBuilder
+
+/**
+ * Test for the directive summary stub of SQL template files
+ */
+class SqlDirectiveStubIndexTest : DomaSqlTest() {
+    private val testDaoName = "DaoMethodVariableInspectionTestDao"
+    private val sqlFileName = "$testDaoName/duplicateForDirectiveDefinitionNames.sql"
+
+    override fun setUp() {
+        super.setUp()
+        addDaoJavaFile("$testDaoName.java")
+        addSqlFile(sqlFileName)
+    }
+
+    fun testFileStub() {
+        val sqlFile = findSqlFile(sqlFileName)
+        assertNotNull("Not Found SQL File", sqlFile)
+        val psiFile = project.findFile(sqlFile!!)
+        val stub = SqlDirectiveStubIndex.getFileStub(psiFile!!)
+        assertNotNull("Not Found File Stub", stub)
+
+        assertEquals(setOf("ids", "users", "inForm", "searchName"), stub!!.bindVariables)
+        assertEquals(setOf("member"), stub.forItemVariables)
+        assertEquals(1, stub.forDirectives.size)
+        assertEquals("member", stub.forDirectives.first().itemName)
+        assertEquals("users", stub.forDirectives.first().declaration)
+    }
+
+    fun testFindFiles() {
+        val scope = GlobalSearchScope.projectScope(project)
+        val sqlFile = findSqlFile(sqlFileName)
+        assertNotNull("Not Found SQL File", sqlFile)
+
+        val bindFiles = SqlDirectiveStubIndex.findFilesByBindVariable(project, "searchName", scope)
+        assertTrue(bindFiles.any { it.virtualFile == sqlFile })
+
+        val forItemFiles = SqlDirectiveStubIndex.findFilesByForItem(project, "member", scope)
+        assertTrue(forItemFiles.any { it.virtualFile == sqlFile })
+
+        assertFalse(
+            SqlDirectiveStubIndex
+                .findFilesByBindVariable(project, "member", scope)
+                .any { it.virtualFile == sqlFile },
+        )
+    }
+
+    fun testToForItemName() {
+        assertEquals("member", SqlFileStubBuilder.toForItemName("member_has_next"))
+        assertEquals("member", SqlFileStubBuilder.toForItemName("member_index"))
+        assertEquals("page_index_size", SqlFileStubBuilder.toForItemName("page_index_size"))
+        assertEquals("x_indexes", SqlFileStubBuilder.toForItemName("x_indexes"))
+        assertEquals("has_next_page", SqlFileStubBuilder.toForItemName("has_next_page"))
+    }
+}
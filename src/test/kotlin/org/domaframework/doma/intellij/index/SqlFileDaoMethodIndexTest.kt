@@ -0,0 +1,78 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.index
+
+import com.intellij.psi.search.GlobalSearchScope
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.common.dao.findDaoFile
+import org.domaframework.doma.intellij.common.dao.findDaoMethod
+import org.domaframework.doma.intellij.extension.findFile
+
+/**
+ * Test for the index mapping SQL template files to DAO methods
+ */
+class SqlFileDaoMethodIndexTest : DomaSqlTest() {
+    private val packageName = "gutteraction"
+    private val testDaoName = "JumpActionTestDao"
+    private val daoClassName = "doma.example.dao.$packageName.$testDaoName"
+
+    override fun setUp() {
+        super.setUp()
+        addDaoJavaFile("$packageName/$testDaoName.java")
+        addSqlFile(
+            "$packageName/$testDaoName/jumpToDaoFile.sql",
+            "$packageName/$testDaoName/notDisplayGutterWithNonExistentDaoMethod.sql",
+        )
+    }
+
+    fun testFindSqlFileFromDaoMethod() {
+        val sqlFiles =
+            SqlFileDaoMethodIndex.findSqlFiles(
+                project,
+                daoClassName,
+                "jumpToDaoFile",
+                GlobalSearchScope.projectScope(project),
+            )
+        assertEquals(1, sqlFiles.size)
+        assertEquals(findSqlFile("$packageName/$testDaoName/jumpToDaoFile.sql"), sqlFiles.first())
+    }
+
+    fun testFindDaoMethodFromSqlFile() {
+        val sqlFile = findSqlFile("$packageName/$testDaoName/jumpToDaoFile.sql")
+        assertNotNull("Not Found SQL File", sqlFile)
+        val entry = SqlFileDaoMethodIndex.findDaoMethodEntry(project, sqlFile!!)
+        assertNotNull("Not Found Index Entry", entry)
+        assertEquals(daoClassName, entry?.daoClassName)
+        assertEquals("jumpToDaoFile", entry?.methodName)
+        assertEquals(
+            "META-INF/doma/example/dao/$packageName/$testDaoName/jumpToDaoFile.sql",
+            entry?.relativePath,
+        )
+
+        val psiFile = project.findFile(sqlFile)
+        assertNotNull(psiFile)
+        assertEquals("jumpToDaoFile", findDaoMethod(psiFile!!)?.name)
+        assertEquals("$testDaoName.java", findDaoFile(project, psiFile)?.name)
+    }
+
+    fun testNonExistentDaoMethod() {
+        val sqlFile = findSqlFile("$packageName/$testDaoName/notDisplayGutterWithNonExistentDaoMethod.sql")
+        assertNotNull("Not Found SQL File", sqlFile)
+        val psiFile = project.findFile(sqlFile!!)
+        assertNotNull(psiFile)
+        assertNull(findDaoMethod(psiFile!!))
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.progress.EmptyProgressIndicator
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.testFramework.PlatformTestUtil
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.inspection.dao.inspector.UsedDaoMethodParamInspection
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import java.util.Collections
+import java.util.concurrent.Callable
+
+/**
+ * Test for problem positions and inspection filtering of the batch analyzer
+ */
+class DomaBatchAnalyzerTest : DomaSqlTest() {
+    private val testDaoName = "inspection/BatchAnalyzerTestDao"
+
+    override fun setUp() {
+        super.setUp()
+        addDaoJavaFile("$testDaoName.java")
+        addSqlFile("$testDaoName/selectByUnknownName.sql")
+        myFixture.enableInspections(
+            SqlBindVariableInspection(),
+            UsedDaoMethodParamInspection(),
+        )
+    }
+
+    fun testProblemInSqlFile() {
+        val sqlFile = findSqlFile("$testDaoName/selectByUnknownName.sql")
+        assertNotNull("Not Found SQL File", sqlFile)
+        if (sqlFile == null) return
+
+        val problems = analyze(null).filter { it.file == sqlFile }
+        assertProblemAt(problems, SqlBindVariableInspection.SHORT_NAME, sqlFile, "unknownName")
+    }
+
+    fun testProblemInSqlAnnotation() {
+        val daoFile = findDaoClass(testDaoName).containingFile.virtualFile
+
+        val problems = analyze(null).filter { it.file == daoFile }
+        assertProblemAt(problems, SqlBindVariableInspection.SHORT_NAME, daoFile, "unknownId")
+        assertTrue(
+            "Unused DAO parameters should be reported",
+            problems.any { it.inspection == UsedDaoMethodParamInspection().shortName },
+        )
+    }
+
+    fun testShortNamesLimitInspections() {
+        val problems = analyze(setOf(SqlBindVariableInspection.SHORT_NAME))
+
+        assertEquals(
+            listOf("unknownId", "unknownName"),
+            problems.map { it.message.substringAfter("[").substringBefore("]") }.sorted(),
+        )
+        assertTrue(problems.all { it.inspection == SqlBindVariableInspection.SHORT_NAME })
+    }
+
+    private fun analyze(shortNames: Set<String>?): List<DomaBatchAnalyzer.Problem> {
+        val problems = Collections.synchronizedList(mutableListOf<DomaBatchAnalyzer.Problem>())
+        val analyzer = DomaBatchAnalyzer(project, shortNames) { problems.addAll(it) }
+        // The analyzer waits for its read actions, so it cannot block the EDT running the test
+        val future =
+            ApplicationManager.getApplication().executeOnPooledThread(
+                Callable { analyzer.run(EmptyProgressIndicator()) },
+            )
+        PlatformTestUtil.waitForFuture(future, TIMEOUT_MILLIS)
+        return problems.toList()
+    }
+
+    private fun assertProblemAt(
+        problems: List<DomaBatchAnalyzer.Problem>,
+        inspection: String,
+        file: VirtualFile,
+        word: String,
+    ) {
+        val document = FileDocumentManager.getInstance().getDocument(file)
+        assertNotNull("Not Found Document", document)
+        if (document == null) return
+        val offset = document.text.indexOf(word)
+        val line = document.getLineNumber(offset)
+
+        val problem = problems.find { it.inspection == inspection }
+        assertNotNull("Not Found Problem of $inspection in ${file.name}", problem)
+        if (problem == null) return
+        assertEquals(line, problem.line)
+        assertEquals(offset - document.getLineStartOffset(line), problem.column)
+        assertTrue(problem.message, problem.message.contains(word))
+        assertTrue(problem.isError)
+    }
+
+    companion object {
+        private const val TIMEOUT_MILLIS = 60_000L
+    }
+}
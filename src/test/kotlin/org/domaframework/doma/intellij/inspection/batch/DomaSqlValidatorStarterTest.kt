@@ -0,0 +1,97 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.intellij.openapi.project.Project
+import com.intellij.testFramework.LightVirtualFile
+import com.intellij.testFramework.fixtures.BasePlatformTestCase
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import java.nio.file.Files
+import java.nio.file.Path
+
+/**
+ * Test for the argument parsing and exit codes of the headless validator
+ */
+class DomaSqlValidatorStarterTest : BasePlatformTestCase() {
+    private lateinit var projectDir: Path
+
+    override fun setUp() {
+        super.setUp()
+        projectDir = Files.createTempDirectory("domaSqlValidate")
+        Files.createDirectory(projectDir.resolve(Project.DIRECTORY_STORE_FOLDER))
+    }
+
+    override fun tearDown() {
+        try {
+            projectDir.toFile().deleteRecursively()
+        } finally {
+            super.tearDown()
+        }
+    }
+
+    fun testDefaultOptions() {
+        val options = DomaSqlValidatorStarter.parseOptions(listOf(projectDir.toString()))
+
+        assertEquals(projectDir.toAbsolutePath().normalize(), options.projectPath)
+        assertEquals(ValidationReportWriter.Format.SARIF, options.format)
+        assertNull(options.output)
+    }
+
+    fun testFormatAndOutputOptions() {
+        val options =
+            DomaSqlValidatorStarter.parseOptions(
+                listOf("--format=JSON", projectDir.toString(), "--output=report.json"),
+            )
+
+        assertEquals(ValidationReportWriter.Format.JSON, options.format)
+        assertEquals(Path.of("report.json"), options.output)
+    }
+
+    fun testInvalidArguments() {
+        assertInvalidArguments(emptyList())
+        assertInvalidArguments(listOf(projectDir.toString(), "--format=xml"))
+        assertInvalidArguments(listOf(projectDir.toString(), projectDir.toString()))
+        assertInvalidArguments(listOf(projectDir.resolve("missing").toString()))
+    }
+
+    fun testProjectWithoutIdeConfiguration() {
+        Files.delete(projectDir.resolve(Project.DIRECTORY_STORE_FOLDER))
+        assertInvalidArguments(listOf(projectDir.toString()))
+    }
+
+    fun testExitCode() {
+        assertEquals(DomaSqlValidatorStarter.EXIT_OK, DomaSqlValidatorStarter.getExitCode(emptyList()))
+        assertEquals(DomaSqlValidatorStarter.EXIT_OK, DomaSqlValidatorStarter.getExitCode(listOf(createProblem(false))))
+        assertEquals(
+            DomaSqlValidatorStarter.EXIT_ERRORS_FOUND,
+            DomaSqlValidatorStarter.getExitCode(listOf(createProblem(false), createProblem(true))),
+        )
+    }
+
+    private fun assertInvalidArguments(args: List<String>) {
+        assertThrows(IllegalArgumentException::class.java) { DomaSqlValidatorStarter.parseOptions(args) }
+    }
+
+    private fun createProblem(isError: Boolean): DomaBatchAnalyzer.Problem =
+        DomaBatchAnalyzer.Problem(
+            SqlBindVariableInspection.SHORT_NAME,
+            LightVirtualFile("selectEmployee.sql"),
+            0,
+            0,
+            "Not found",
+            isError,
+        )
+}
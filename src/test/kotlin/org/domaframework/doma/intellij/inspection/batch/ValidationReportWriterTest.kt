@@ -0,0 +1,99 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.batch
+
+import com.google.gson.JsonParser
+import com.intellij.openapi.vfs.VirtualFile
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+
+/**
+ * Test for the SARIF and JSON reports of the headless validator
+ */
+class ValidationReportWriterTest : DomaSqlTest() {
+    private val testDaoName = "DaoMethodVariableInspectionTestDao"
+    private val sqlFileName = "$testDaoName/duplicateForDirectiveDefinitionNames.sql"
+
+    override fun setUp() {
+        super.setUp()
+        addSqlFile(sqlFileName)
+    }
+
+    fun testSarif() {
+        val report = createWriter().write(ValidationReportWriter.Format.SARIF)
+        val sarif = JsonParser.parseString(report).asJsonObject
+
+        assertEquals("2.1.0", sarif.get("version").asString)
+        val run = sarif.getAsJsonArray("runs").first().asJsonObject
+        val rule = run.getAsJsonObject("tool").getAsJsonObject("driver").getAsJsonArray("rules").first().asJsonObject
+        assertEquals(SqlBindVariableInspection.SHORT_NAME, rule.get("id").asString)
+
+        val result = run.getAsJsonArray("results").first().asJsonObject
+        assertEquals("error", result.get("level").asString)
+        assertEquals("Not found", result.getAsJsonObject("message").get("text").asString)
+        val location = result.getAsJsonArray("locations").first().asJsonObject.getAsJsonObject("physicalLocation")
+        val artifactLocation = location.getAsJsonObject("artifactLocation")
+        assertEquals("main/resources/META-INF/doma/example/dao/$sqlFileName", artifactLocation.get("uri").asString)
+        assertEquals("%SRCROOT%", artifactLocation.get("uriBaseId").asString)
+        val srcRoot = run.getAsJsonObject("originalUriBaseIds").getAsJsonObject("%SRCROOT%")
+        assertTrue(srcRoot.get("uri").asString.startsWith("file:"))
+        assertTrue(srcRoot.get("uri").asString.endsWith("/"))
+        assertEquals(3, location.getAsJsonObject("region").get("startLine").asInt)
+        assertEquals(5, location.getAsJsonObject("region").get("startColumn").asInt)
+    }
+
+    fun testSarifOutsideBaseDirectory() {
+        val javaDir = myFixture.tempDirFixture.getFile("main/java")
+        assertNotNull("Not Found Source Directory", javaDir)
+        val report = createWriter(javaDir).write(ValidationReportWriter.Format.SARIF)
+        val sarif = JsonParser.parseString(report).asJsonObject
+
+        val run = sarif.getAsJsonArray("runs").first().asJsonObject
+        val result = run.getAsJsonArray("results").first().asJsonObject
+        val location = result.getAsJsonArray("locations").first().asJsonObject.getAsJsonObject("physicalLocation")
+        val artifactLocation = location.getAsJsonObject("artifactLocation")
+        assertTrue(artifactLocation.get("uri").asString.startsWith("file:"))
+        assertTrue(artifactLocation.get("uri").asString.endsWith(sqlFileName))
+        assertNull(artifactLocation.get("uriBaseId"))
+    }
+
+    fun testJson() {
+        val report = createWriter().write(ValidationReportWriter.Format.JSON)
+        val json = JsonParser.parseString(report).asJsonObject
+
+        assertEquals(1, json.get("analyzedFiles").asInt)
+        val problem = json.getAsJsonArray("problems").first().asJsonObject
+        assertEquals(SqlBindVariableInspection.SHORT_NAME, problem.get("inspection").asString)
+        assertEquals("error", problem.get("severity").asString)
+        assertEquals(3, problem.get("line").asInt)
+        assertEquals(5, problem.get("column").asInt)
+    }
+
+    private fun createWriter(baseDir: VirtualFile? = myFixture.tempDirFixture.getFile("")): ValidationReportWriter {
+        val sqlFile = findSqlFile(sqlFileName)
+        assertNotNull("Not Found SQL File", sqlFile)
+        val problem =
+            DomaBatchAnalyzer.Problem(
+                SqlBindVariableInspection.SHORT_NAME,
+                sqlFile!!,
+                2,
+                4,
+                "Not found",
+                true,
+            )
+        return ValidationReportWriter(project, listOf(problem), 1, baseDir)
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.sql
+
+import com.intellij.codeInsight.daemon.impl.HighlightInfo
+import com.intellij.lang.annotation.HighlightSeverity
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.PsiTreeUtil
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.common.util.FieldAccessChainCache
+import org.domaframework.doma.intellij.common.util.PluginLoggerUtil
+import org.domaframework.doma.intellij.extension.findFile
+import org.domaframework.doma.intellij.inspection.sql.inspector.SqlBindVariableInspection
+import org.domaframework.doma.intellij.psi.SqlElIdExpr
+
+/**
+ * Test for the per-file memo of field access chain steps
+ */
+class FieldAccessChainCacheTest : DomaSqlTest() {
+    private val testDaoName = "inspection/FieldAccessChainTestDao"
+
+    override fun setUp() {
+        super.setUp()
+        addOtherJavaFile("entity", "ChainOwner.java")
+        addDaoJavaFile("$testDaoName.java")
+        addSqlFile(
+            "$testDaoName/reuseChain.sql",
+            "$testDaoName/fieldAndMethodWithSameName.sql",
+        )
+        myFixture.enableInspections(SqlBindVariableInspection())
+    }
+
+    fun testReuseChain() {
+        val (hits, _) = PluginLoggerUtil.getCacheLookupCounts(CACHE_NAME)
+        assertEmpty(highlightErrors("reuseChain.sql"))
+
+        // The second bind variable resolves `owner.target` and `owner.target.fieldName` from the memo
+        val (hitsAfter, _) = PluginLoggerUtil.getCacheLookupCounts(CACHE_NAME)
+        assertTrue("Expected memo hits, but was ${hitsAfter - hits}", hitsAfter - hits >= 2)
+    }
+
+    fun testStepKeyOfFieldAndMethod() {
+        val psiFile = findPsiFile("fieldAndMethodWithSameName.sql")
+        val targets = PsiTreeUtil.findChildrenOfType(psiFile, SqlElIdExpr::class.java).filter { it.text == "target" }
+        val fieldKey = FieldAccessChainCache.stepKey("root", targets[0], "target")
+        val methodKey = FieldAccessChainCache.stepKey("root", targets[1], "target")
+
+        assertEquals("root.target", fieldKey)
+        assertEquals("root.target()", methodKey)
+    }
+
+    fun testFieldAndMethodWithSameName() {
+        val sqlFile = findSqlFile("$testDaoName/fieldAndMethodWithSameName.sql")
+        assertNotNull("Not Found SQL File", sqlFile)
+        if (sqlFile == null) return
+
+        myFixture.testHighlighting(false, false, false, sqlFile)
+    }
+
+    fun testInvalidateAfterJavaEdit() {
+        val psiFile = findPsiFile("reuseChain.sql")
+        assertEmpty(highlightErrors("reuseChain.sql"))
+        val chainCache = FieldAccessChainCache.getInstance(psiFile)
+        assertSame(chainCache, FieldAccessChainCache.getInstance(psiFile))
+
+        val ownerFile = myFixture.findClass("doma.example.entity.ChainOwner").containingFile
+        val document = PsiDocumentManager.getInstance(project).getDocument(ownerFile)
+        assertNotNull(document)
+        WriteCommandAction.runWriteCommandAction(project) {
+            val offset = document!!.text.indexOf("fieldName")
+            document.replaceString(offset, offset + "fieldName".length, "renamedName")
+            PsiDocumentManager.getInstance(project).commitDocument(document)
+        }
+
+        assertNotSame(chainCache, FieldAccessChainCache.getInstance(psiFile))
+        val errors = highlightErrors("reuseChain.sql")
+        assertEquals(2, errors.size)
+        assertTrue(errors.all { it.description.contains("[fieldName]") })
+    }
+
+    private fun highlightErrors(sqlName: String): List<HighlightInfo> {
+        val sqlFile = findSqlFile("$testDaoName/$sqlName")
+        assertNotNull("Not Found SQL File", sqlFile)
+        myFixture.configureFromExistingVirtualFile(sqlFile!!)
+        return myFixture.doHighlighting(HighlightSeverity.ERROR)
+    }
+
+    private fun findPsiFile(sqlName: String): PsiFile {
+        val sqlFile = findSqlFile("$testDaoName/$sqlName")
+        assertNotNull("Not Found SQL File", sqlFile)
+        val psiFile = project.findFile(sqlFile!!)
+        assertNotNull(psiFile)
+        return psiFile!!
+    }
+
+    companion object {
+        private const val CACHE_NAME = "FieldAccessChainCache"
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.inspection.sql
+
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.PsiFile
+import com.intellij.psi.util.PsiTreeUtil
+import org.domaframework.doma.intellij.DomaSqlTest
+import org.domaframework.doma.intellij.extension.findFile
+import org.domaframework.doma.intellij.inspection.sql.analysis.SqlFileAnalysis
+import org.domaframework.doma.intellij.psi.SqlBlockComment
+
+/**
+ * Test for the per-file analysis shared by the SQL inspections
+ */
+class SqlFileAnalysisTest : DomaSqlTest() {
+    private val testDaoName = "TestDataCheckDao"
+    private val packageName = "inspection"
+
+    override fun setUp() {
+        super.setUp()
+        addDaoJavaFile("$packageName/$testDaoName.java")
+        addSqlFile("$packageName/$testDaoName/invalidTestData.sql")
+    }
+
+    fun testAnalysisIsSharedUntilFileChanges() {
+        val psiFile = findPsiFile()
+        val analysis = SqlFileAnalysis.getInstance(psiFile)
+        assertEquals("invalidTestData", analysis.daoMethod?.name)
+        assertSame(analysis, SqlFileAnalysis.getInstance(psiFile))
+
+        val document = PsiDocumentManager.getInstance(project).getDocument(psiFile)
+        assertNotNull(document)
+        WriteCommandAction.runWriteCommandAction(project) {
+            document!!.insertString(0, "-- comment\n")
+            PsiDocumentManager.getInstance(project).commitDocument(document)
+        }
+        assertNotSame(analysis, SqlFileAnalysis.getInstance(psiFile))
+    }
+
+    fun testTestDataResults() {
+        val psiFile = findPsiFile()
+        val analysis = SqlFileAnalysis.getInstance(psiFile)
+        val comments = PsiTreeUtil.findChildrenOfType(psiFile, SqlBlockComment::class.java)
+
+        val valid = comments.first { it.text == "/* employee.employeeId */" }
+        val invalid = comments.first { it.text == "/* employee.department */" }
+        assertNull(analysis.getTestDataResult(valid))
+        assertNotNull(analysis.getTestDataResult(invalid))
+    }
+
+    private fun findPsiFile(): PsiFile {
+        val sqlFile = findSqlFile("$packageName/$testDaoName/invalidTestData.sql")
+        assertNotNull("Not Found SQL File", sqlFile)
+        val psiFile = project.findFile(sqlFile!!)
+        assertNotNull(psiFile)
+        return psiFile!!
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.lexer
+
+import com.intellij.lexer.Lexer
+import com.intellij.openapi.command.WriteCommandAction
+import com.intellij.openapi.editor.EditorFactory
+import com.intellij.openapi.editor.colors.EditorColorsManager
+import com.intellij.openapi.editor.ex.util.LexerEditorHighlighter
+import com.intellij.openapi.util.TextRange
+import com.intellij.testFramework.fixtures.BasePlatformTestCase
+import org.domaframework.doma.intellij.highlighter.SqlSyntaxHighlighter
+import org.domaframework.doma.intellij.setting.SqlLexerAdapter
+
+/**
+ * Test for incremental re-lexing of SQL files in the editor highlighter
+ */
+class SqlLexerRestartTest : BasePlatformTestCase() {
+    fun testRestartInsideExpression() {
+        val lexer = SqlLexerAdapter()
+        val text = "SELECT * FROM emp WHERE id = /* employee.id */1"
+        lexer.start(text)
+        val fullTokens = collectTokens(lexer)
+
+        val restartToken = fullTokens.first { it.text == "id" && it.start > text.indexOf("/*") }
+        lexer.start(text, restartToken.start, text.length, restartToken.state)
+        assertEquals(fullTokens.filter { it.start >= restartToken.start }, collectTokens(lexer))
+    }
+
+    /**
+     * Measures the range re-lexed by the editor highlighter when a character is typed
+     * in the middle of a long `%if` condition.
+     */
+    fun testReLexedRangePerKeystroke() {
+        val conditions = (0 until 2_000).joinToString(" && ") { "param$it != null" }
+        val text = "SELECT *\n  FROM emp\n WHERE\n/*%if $conditions */\n   id = /* id */0\n/*%end*/"
+        val document = EditorFactory.getInstance().createDocument(text)
+        val lexer = CountingSqlLexer()
+        val highlighter =
+            LexerEditorHighlighter(
+                object : SqlSyntaxHighlighter() {
+                    override fun getHighlightingLexer(): Lexer = lexer
+                },
+                EditorColorsManager.getInstance().globalScheme,
+            )
+        highlighter.setText(document.immutableCharSequence)
+        document.addDocumentListener(highlighter)
+
+        val offset = text.indexOf("param1000") + "param10".length
+        lexer.reset()
+        WriteCommandAction.runWriteCommandAction(project) {
+            document.insertString(offset, "0")
+        }
+        val reLexedRange = lexer.lexedRange()
+        assertTrue("Re-lexed range $reLexedRange should stay near the edit", reLexedRange < 100)
+
+        val iterator = highlighter.createIterator(offset)
+        assertEquals("param10000", document.getText(TextRange(iterator.start, iterator.end)))
+    }
+
+    private data class Token(
+        val type: String,
+        val text: String,
+        val start: Int,
+        val state: Int,
+    )
+
+    private fun collectTokens(lexer: Lexer): List<Token> {
+        val tokens = mutableListOf<Token>()
+        while (lexer.tokenType != null) {
+            tokens.add(Token(lexer.tokenType.toString(), lexer.tokenText, lexer.tokenStart, lexer.state))
+            lexer.advance()
+        }
+        return tokens
+    }
+
+    private class CountingSqlLexer : SqlLexerAdapter() {
+        private var minStart = Int.MAX_VALUE
+        private var maxEnd = 0
+
+        fun reset() {
+            minStart = Int.MAX_VALUE
+            maxEnd = 0
+        }
+
+        fun lexedRange(): Int = if (maxEnd < minStart) 0 else maxEnd - minStart
+
+        override fun start(
+            buffer: CharSequence,
+            startOffset: Int,
+            endOffset: Int,
+            initialState: Int,
+        ) {
+            super.start(buffer, startOffset, endOffset, initialState)
+            minStart = minOf(minStart, startOffset)
+        }
+
+        override fun advance() {
+            maxEnd = maxOf(maxEnd, tokenEnd)
+            super.advance()
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright Doma Tools Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.domaframework.doma.intellij.lexer
+
+import com.intellij.lexer.Lexer
+import com.intellij.psi.tree.IElementType
+import com.intellij.testFramework.UsefulTestCase
+import org.domaframework.doma.intellij.SqlTokenHelper
+import org.domaframework.doma.intellij.psi.SqlTypes
+import org.domaframework.doma.intellij.setting.SqlLexerAdapter
+import org.domaframework.doma.intellij.tokens.SqlDialect
+
+/**
+ * Test for word classification in the SQL lexer
+ */
+class SqlLexerTest : UsefulTestCase() {
+    fun testWordTokenType() {
+        assertWordTokenType("SELECT", SqlTypes.KEYWORD)
+        assertWordTokenType("select", SqlTypes.KEYWORD)
+        assertWordTokenType("Select", SqlTypes.KEYWORD)
+        assertWordTokenType("VARCHAR", SqlTypes.DATATYPE)
+        assertWordTokenType("coalesce", SqlTypes.FUNCTION_NAME)
+        assertWordTokenType("users", SqlTypes.WORD)
+        assertWordTokenType("selects", SqlTypes.WORD)
+        assertWordTokenType("ｓｅｌｅｃｔ", SqlTypes.WORD)
+
+        // Keywords take priority over data types, and data types over functions
+        assertWordTokenType("SET", SqlTypes.KEYWORD)
+        assertWordTokenType("date", SqlTypes.DATATYPE)
+    }
+
+    fun testWordTokenTypeInBuffer() {
+        val buffer = "/* name */ FROM employee"
+        assertEquals(SqlTypes.KEYWORD, SqlTokenHelper.getWordTokenType(buffer, 11, 15))
+        assertEquals(SqlTypes.WORD, SqlTokenHelper.getWordTokenType(buffer, 16, 24))
+    }
+
+    fun testDialectTokenTable() {
+        val standard = SqlTokenHelper.createTokenTable(SqlDialect.STANDARD, listOf("qualify"), listOf("my_func"))
+        assertEquals(SqlTypes.WORD, standard.getWordTokenType("nvl", 0, 3))
+        assertEquals(SqlTypes.FUNCTION_NAME, standard.getWordTokenType("count", 0, 5))
+        assertEquals(SqlTypes.KEYWORD, standard.getWordTokenType("QUALIFY", 0, 7))
+        assertEquals(SqlTypes.FUNCTION_NAME, standard.getWordTokenType("My_Func", 0, 7))
+
+        val oracle = SqlTokenHelper.createTokenTable(SqlDialect.ORACLE, emptyList(), emptyList())
+        assertEquals(SqlTypes.FUNCTION_NAME, oracle.getWordTokenType("NVL", 0, 3))
+        assertEquals(SqlTypes.WORD, oracle.getWordTokenType("factorial", 0, 9))
+    }
+
+    fun testLexerWordTokens() {
+        val tokens = tokenize("select count(id) from employee where name = 'a'")
+        assertEquals(
+            listOf(
+                SqlTypes.KEYWORD to "select",
+                SqlTypes.FUNCTION_NAME to "count",
+                SqlTypes.WORD to "id",
+                SqlTypes.KEYWORD to "from",
+                SqlTypes.WORD to "employee",
+                SqlTypes.KEYWORD to "where",
+                SqlTypes.WORD to "name",
+            ),
+            tokens.filter { it.first in WORD_TYPES },
+        )
+    }
+
+    /**
+     * The word lookup over a generated SQL file agrees with the former `toString().lowercase()` lookup.
+     * Throughput and allocation are measured by `SqlLexerBenchmark` in the jmh source set.
+     */
+    fun testWordLookupMatchesLegacyLookup() {
+        val sql = generateSql(1_000)
+        val lexer = SqlLexerAdapter()
+        lexer.start(sql)
+        while (lexer.tokenType != null) {
+            if (lexer.tokenType in WORD_TYPES) {
+                assertEquals(
+                    legacyWordTokenType(sql.subSequence(lexer.tokenStart, lexer.tokenEnd)),
+                    SqlTokenHelper.getWordTokenType(sql, lexer.tokenStart, lexer.tokenEnd),
+                )
+            }
+            lexer.advance()
+        }
+    }
+
+    private fun assertWordTokenType(
+        word: String,
+        expected: IElementType,
+    ) {
+        assertEquals(word, expected, SqlTokenHelper.getWordTokenType(word, 0, word.length))
+        assertEquals(word, listOf(expected to word), tokenize(word))
+    }
+
+    private fun tokenize(text: String): List<Pair<IElementType, String>> {
+        val lexer: Lexer = SqlLexerAdapter()
+        lexer.start(text)
+        val tokens = mutableListOf<Pair<IElementType, String>>()
+        while (lexer.tokenType != null) {
+            tokens.add(lexer.tokenType!! to lexer.tokenText)
+            lexer.advance()
+        }
+        return tokens
+    }
+
+    private fun legacyWordTokenType(word: CharSequence): IElementType =
+        when {
+            SqlTokenHelper.getKeyword().contains(word.toString().lowercase()) -> SqlTypes.KEYWORD
+            SqlTokenHelper.getDataTypeTokens().contains(word.toString().lowercase()) -> SqlTypes.DATATYPE
+            SqlTokenHelper.getFunctionTokens().contains(word.toString().lowercase()) -> SqlTypes.FUNCTION_NAME
+            else -> SqlTypes.WORD
+        }
+
+    private fun generateSql(lines: Int): String =
+        buildString {
+            for (i in 0 until lines) {
+                when (i % 4) {
+                    0 -> append("SELECT e.employee_id, COUNT(e.salary) AS total_$i\n")
+                    1 -> append("  FROM employee e INNER JOIN department d ON e.department_id = d.id\n")
+                    2 -> append(" WHERE e.name = /* name */'name' AND e.hire_date < CURRENT_DATE\n")
+                    else -> append(" GROUP BY e.employee_id ORDER BY total_$i DESC;\n")
+                }
+            }
+        }
+
+    companion object {
+        private val WORD_TYPES = setOf(SqlTypes.KEYWORD, SqlTypes.DATATYPE, SqlTypes.FUNCTION_NAME, SqlTypes.WORD)
+    }
+}
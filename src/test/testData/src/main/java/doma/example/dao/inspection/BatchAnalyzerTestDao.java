@@ -0,0 +1,17 @@
+package doma.example.dao.inspection;
+
+import doma.example.entity.*;
+import org.seasar.doma.*;
+
+import java.util.List;
+
+@Dao
+interface BatchAnalyzerTestDao {
+
+  @Select
+  List<Employee> selectByUnknownName(String name);
+
+  @Select
+  @Sql("select * from employee where employee_id = /* unknownId */0")
+  Employee selectByUnknownId(Integer id);
+}
@@ -0,0 +1,16 @@
+package doma.example.dao.inspection;
+
+import doma.example.entity.*;
+import org.seasar.doma.*;
+
+import java.util.List;
+
+@Dao
+interface FieldAccessChainTestDao {
+
+  @Select
+  List<Employee> reuseChain(ChainOwner owner);
+
+  @Select
+  List<Employee> fieldAndMethodWithSameName(ChainOwner owner);
+}
@@ -0,0 +1,18 @@
+package doma.example.entity;
+
+public class ChainOwner {
+
+  public FieldTarget target;
+
+  public MethodTarget target() {
+    return new MethodTarget();
+  }
+
+  public static class FieldTarget {
+    public String fieldName;
+  }
+
+  public static class MethodTarget {
+    public String methodName;
+  }
+}
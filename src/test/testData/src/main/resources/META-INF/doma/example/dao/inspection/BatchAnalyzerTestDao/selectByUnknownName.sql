@@ -0,0 +1,3 @@
+SELECT *
+  FROM employee
+ WHERE employee_name = /* unknownName */'name'
@@ -0,0 +1,6 @@
+SELECT *
+  FROM employee
+ WHERE employee_name = /* owner.target.fieldName */'name'
+    OR employee_name = /* owner.target().methodName */'name'
+    OR employee_name = /* owner.target().<error descr="The field or method [fieldName] does not exist in the class [MethodTarget]">fieldName</error> */'name'
+    OR employee_name = /* owner.target.<error descr="The field or method [methodName] does not exist in the class [FieldTarget]">methodName</error> */'name'
\ No newline at end of file
@@ -0,0 +1,4 @@
+SELECT *
+  FROM employee
+ WHERE employee_name = /* owner.target.fieldName */'name'
+    OR employee_name = /* owner.target.fieldName */'name'
\ No newline at end of file